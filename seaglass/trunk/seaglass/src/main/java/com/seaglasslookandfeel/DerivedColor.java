@@ -17,7 +17,7 @@ class DerivedColor extends Color {
     private final String uiDefaultParentName;
     private final float hOffset, sOffset, bOffset;
     private final int aOffset;
-    private int argbValue = Integer.MAX_VALUE;
+    private volatile int argbValue = Integer.MAX_VALUE;
 
     DerivedColor(String uiDefaultParentName, float hOffset, float sOffset, float bOffset, int aOffset) {
         super(0);
@@ -52,7 +52,18 @@ class DerivedColor extends Color {
      * Recalculate the derived color from the UIManager parent color and offsets
      */
     private void rederiveColor() {
-        Color src = UIManager.getColor(uiDefaultParentName);
+        rederiveColor(UIManager.getColor(uiDefaultParentName));
+    }
+
+    /**
+     * Recalculate the derived color from the given parent color and offsets.
+     * Used by the look and feel to derive shared instances eagerly, and to
+     * re-derive them when the parent color changes.
+     *
+     * @param src the current value of the parent color, or <code>null</code>
+     *            if the parent is not defined.
+     */
+    void rederiveColor(Color src) {
         if (src != null) {
             float[] tmp = Color.RGBtoHSB(src.getRed(), src.getGreen(), src.getBlue(), null);
             // apply offsets
@@ -92,7 +103,7 @@ class DerivedColor extends Color {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (!(o instanceof DerivedColor)) return false;
+        if (o == null || o.getClass() != getClass()) return false;
         DerivedColor that = (DerivedColor) o;
         if (aOffset != that.aOffset) return false;
         if (Float.compare(that.bOffset, bOffset) != 0) return false;
@@ -105,12 +116,9 @@ class DerivedColor extends Color {
     @Override
     public int hashCode() {
         int result = uiDefaultParentName.hashCode();
-        result = 31 * result + hOffset != +0.0f ?
-                Float.floatToIntBits(hOffset) : 0;
-        result = 31 * result + sOffset != +0.0f ?
-                Float.floatToIntBits(sOffset) : 0;
-        result = 31 * result + bOffset != +0.0f ?
-                Float.floatToIntBits(bOffset) : 0;
+        result = 31 * result + Float.floatToIntBits(hOffset);
+        result = 31 * result + Float.floatToIntBits(sOffset);
+        result = 31 * result + Float.floatToIntBits(bOffset);
         result = 31 * result + aOffset;
         return result;
     }
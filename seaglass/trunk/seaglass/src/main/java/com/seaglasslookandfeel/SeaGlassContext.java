@@ -19,10 +19,7 @@
  */
 package com.seaglasslookandfeel;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.JButton;
 import javax.swing.JComponent;
@@ -65,19 +62,29 @@ public class SeaGlassContext extends SynthContext {
     private static Region        fakeRegion    = Region.BUTTON;
     private static SynthStyle    fakeStyle     = new SeaGlassStyle(null, null);
 
-    // From SynthContext.
+    /** The number of released contexts of each class kept by each thread. */
+    private static final int MAX_POOLED = 16;
 
-    private static final Map     contextMap;
+    /**
+     * The released contexts of the current thread. Contexts are nearly always
+     * used on the event dispatch thread, so keeping a pool per thread avoids
+     * any locking.
+     */
+    private static final ThreadLocal<ContextPool> pools = new ThreadLocal<ContextPool>();
 
-    static {
-        contextMap = new HashMap();
-    }
+    private static final AtomicLong poolHits      = new AtomicLong();
+    private static final AtomicLong poolMisses    = new AtomicLong();
+    private static final AtomicLong releases      = new AtomicLong();
+    private static final AtomicLong extraReleases = new AtomicLong();
 
     private JComponent component;
     private Region     region;
     private SynthStyle style;
     private int        state;
 
+    /** Whether the context has been released and not handed out again. */
+    private boolean released;
+
     /**
      * Creates a new SeaGlassContext object.
      */
@@ -124,55 +131,134 @@ public class SeaGlassContext extends SynthContext {
      *
      * @return the newly constructed context, corresponding to the arguments.
      */
-    public static SeaGlassContext getContext(Class type, JComponent component, Region region, SynthStyle style, int state) {
+    public static SeaGlassContext getContext(Class<? extends SeaGlassContext> type, JComponent component, Region region, SynthStyle style, int state) {
+        ContextPool     pool    = getPool(type);
         SeaGlassContext context = null;
 
-        synchronized (contextMap) {
-            List instances = (List) contextMap.get(type);
-
-            if (instances != null) {
-                int size = instances.size();
-
-                if (size > 0) {
-                    context = (SeaGlassContext) instances.remove(size - 1);
+        if (pool.size > 0) {
+            context                  = pool.contexts[--pool.size];
+            pool.contexts[pool.size] = null;
+            poolHits.incrementAndGet();
+        } else {
+            poolMisses.incrementAndGet();
+
+            if (type == SeaGlassContext.class) {
+                context = new SeaGlassContext();
+            } else {
+
+                try {
+                    context = type.newInstance();
+                } catch (IllegalAccessException iae) {
+                    iae.printStackTrace();
+                } catch (InstantiationException ie) {
+                    ie.printStackTrace();
                 }
             }
         }
 
-        if (context == null) {
-
-            try {
-                context = (SeaGlassContext) type.newInstance();
-            } catch (IllegalAccessException iae) {
-                iae.printStackTrace();
-            } catch (InstantiationException ie) {
-                ie.printStackTrace();
-            }
-        }
-
+        context.released = false;
         context.reset(component, region, style, state);
 
         return context;
     }
 
     /**
-     * Release a context for re-use.
+     * Release a context for re-use. Releasing a context twice is ignored, so
+     * that it cannot be handed out to two callers at once. A context which is
+     * never released is simply left to the garbage collector.
      *
      * @param context the context to release.
      */
     static void releaseContext(SeaGlassContext context) {
-        synchronized (contextMap) {
-            List instances = (List) contextMap.get(context.getClass());
+        if (context.released) {
+            extraReleases.incrementAndGet();
 
-            if (instances == null) {
-                instances = new ArrayList(5);
-                contextMap.put(context.getClass(), instances);
-            }
+            return;
+        }
+
+        context.released = true;
+        releases.incrementAndGet();
+
+        ContextPool pool = getPool(context.getClass());
 
-            instances.add(context);
+        if (pool.size < MAX_POOLED) {
+            pool.contexts[pool.size++] = context;
         }
     }
 
+    /**
+     * Get the current thread's pool of released contexts of a class.
+     *
+     * @param  type the class of the contexts.
+     *
+     * @return the pool.
+     */
+    private static ContextPool getPool(Class<? extends SeaGlassContext> type) {
+        ContextPool first = pools.get();
+
+        for (ContextPool pool = first; pool != null; pool = pool.next) {
+            if (pool.type == type) {
+                return pool;
+            }
+        }
+
+        ContextPool pool = new ContextPool(type, first);
+
+        pools.set(pool);
+
+        return pool;
+    }
+
+    /**
+     * Returns the number of contexts handed out from a pool.
+     *
+     * @return the hit count.
+     */
+    public static long getPoolHitCount() {
+        return poolHits.get();
+    }
+
+    /**
+     * Returns the number of contexts which had to be created.
+     *
+     * @return the miss count.
+     */
+    public static long getPoolMissCount() {
+        return poolMisses.get();
+    }
+
+    /**
+     * Returns the fraction of contexts handed out from a pool.
+     *
+     * @return the hit rate, between 0 and 1.
+     */
+    public static double getPoolHitRate() {
+        long hits  = poolHits.get();
+        long total = hits + poolMisses.get();
+
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the number of contexts handed out and not yet released. This
+     * keeps growing if contexts are leaked.
+     *
+     * @return the outstanding count.
+     */
+    public static long getOutstandingCount() {
+        return poolHits.get() + poolMisses.get() - releases.get();
+    }
+
+    /**
+     * Returns the number of times a context already released was released
+     * again.
+     *
+     * @return the count of ignored releases.
+     */
+    public static long getExtraReleaseCount() {
+        return extraReleases.get();
+    }
+
     /**
      * Returns the hosting component containing the region.
      *
@@ -288,4 +374,25 @@ public class SeaGlassContext extends SynthContext {
 
         return EMPTY_PAINTER;
     }
+
+    /**
+     * The released contexts of one class kept by one thread.
+     */
+    private static final class ContextPool {
+        private final Class<? extends SeaGlassContext> type;
+        private final ContextPool                      next;
+        private final SeaGlassContext[]                contexts = new SeaGlassContext[MAX_POOLED];
+        private int                                    size;
+
+        /**
+         * Creates a new ContextPool object.
+         *
+         * @param type the class of the contexts.
+         * @param next the pool for the next class, or null.
+         */
+        ContextPool(Class<? extends SeaGlassContext> type, ContextPool next) {
+            this.type = type;
+            this.next = next;
+        }
+    }
 }
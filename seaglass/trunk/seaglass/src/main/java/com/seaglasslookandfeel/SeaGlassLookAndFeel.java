@@ -37,14 +37,19 @@ import java.awt.LayoutManager;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.WeakHashMap;
 
 import javax.swing.BorderFactory;
@@ -74,14 +79,18 @@ import javax.swing.plaf.synth.SynthContext;
 import javax.swing.plaf.synth.SynthLookAndFeel;
 import javax.swing.plaf.synth.SynthStyle;
 import javax.swing.plaf.synth.SynthStyleFactory;
+import javax.swing.plaf.synth.SynthUI;
 
+import sun.swing.DefaultLookup;
 import sun.swing.plaf.GTKKeybindings;
 import sun.swing.plaf.WindowsKeybindings;
 import sun.swing.plaf.synth.DefaultSynthStyle;
 
+import com.seaglasslookandfeel.UIWrapper.Section;
 import com.seaglasslookandfeel.component.SeaGlassIcon;
 import com.seaglasslookandfeel.component.SeaGlassTitlePane;
 import com.seaglasslookandfeel.component.TableScrollPaneCorner;
+import com.seaglasslookandfeel.painter.AbstractRegionPainter;
 import com.seaglasslookandfeel.painter.ArrowButtonPainter;
 import com.seaglasslookandfeel.painter.ButtonPainter;
 import com.seaglasslookandfeel.painter.CheckBoxMenuItemPainter;
@@ -96,6 +105,7 @@ import com.seaglasslookandfeel.painter.FrameAndRootPainter;
 import com.seaglasslookandfeel.painter.MenuItemPainter;
 import com.seaglasslookandfeel.painter.MenuPainter;
 import com.seaglasslookandfeel.painter.OptionPanePainter;
+import com.seaglasslookandfeel.painter.PainterFactory;
 import com.seaglasslookandfeel.painter.SeaGlassPainter;
 import com.seaglasslookandfeel.painter.PopupMenuPainter;
 import com.seaglasslookandfeel.painter.ProgressBarPainter;
@@ -161,9 +171,12 @@ import com.seaglasslookandfeel.state.TitlePaneMenuButtonWindowNotFocusedState;
 import com.seaglasslookandfeel.state.TitlePaneWindowFocusedState;
 import com.seaglasslookandfeel.state.ToolBarWindowIsActiveState;
 import com.seaglasslookandfeel.ui.SeaglassUI;
+import com.seaglasslookandfeel.util.ImageCache;
+import com.seaglasslookandfeel.util.LruMap;
 import com.seaglasslookandfeel.util.MacKeybindings;
 import com.seaglasslookandfeel.util.PlatformUtils;
 import com.seaglasslookandfeel.util.SeaGlassGraphicsUtils;
+import com.seaglasslookandfeel.util.TextMetricsCache;
 
 /**
  * This is the main Sea Glass Look and Feel class.
@@ -179,6 +192,15 @@ import com.seaglasslookandfeel.util.SeaGlassGraphicsUtils;
 public class SeaGlassLookAndFeel extends SynthLookAndFeel {
     private static final long serialVersionUID = 4589080729685347322L;
 
+    /** The most resolved styles to remember. */
+    private static final int MAX_RESOLVED_STYLES = 1024;
+
+    /** The most component names to remember the candidate styles of, per region. */
+    private static final int MAX_CANDIDATE_NAMES = 64;
+
+    /** Marks a resolved style entry for which no style matched. */
+    private static final Object NO_STYLE = new Object();
+
     /** Used in a handful of places where we need an empty Insets. */
     public static final Insets EMPTY_UIRESOURCE_INSETS = new InsetsUIResource(0, 0, 0, 0);
 
@@ -263,6 +285,24 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
 
     private Map<String, Region> registeredRegions = new HashMap<String, Region>();
 
+    /**
+     * The style found for each combination of region, component class and
+     * name, and ancestor classes and names seen so far, or NO_STYLE if no
+     * style matched. This saves walking the component hierarchy for every
+     * style of the region each time a component's style is updated. Cleared
+     * when a region is registered. Guarded by itself.
+     */
+    private Map<StyleKey, Object> resolvedStyles = new LruMap<StyleKey, Object>(64, MAX_RESOLVED_STYLES);
+
+    /**
+     * For each region, and each component name, the styles which could match
+     * a component with that name: those whose last part is unnamed or has that
+     * name. The names of each region are bounded, since applications may name
+     * any number of components. Cleared when a region is registered. Guarded
+     * by resolvedStyles.
+     */
+    private Map<Region, Map<String, StyleCandidates>> candidateStyles = new HashMap<Region, Map<String, StyleCandidates>>();
+
     /**
      * Our fallback style to avoid NPEs if the proper style cannot be found in
      * this class. Not sure if relying on DefaultSynthStyle is the best choice.
@@ -277,6 +317,26 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
     
     private UIDefaults uiDefaults = null;
 
+    /**
+     * The shared derived colors. Painters decode the same derived colors over
+     * and over, so each distinct derivation is created once and handed out to
+     * every caller. Guarded by itself.
+     */
+    private Map<DerivedColor, DerivedColor> derivedColors = new HashMap<DerivedColor, DerivedColor>();
+
+    /**
+     * The shared derived colors indexed by the UIDefaults key of their parent,
+     * so that the dependents of a changed color can be found quickly. Guarded
+     * by derivedColors.
+     */
+    private Map<String, List<DerivedColor>> derivedColorsByParent = new HashMap<String, List<DerivedColor>>();
+
+    /**
+     * Re-derives the shared derived colors when this look and feel is
+     * installed and when a parent color is changed in the UIManager.
+     */
+    private PropertyChangeListener derivedColorUpdater = new DerivedColorUpdater();
+
     /**
      * Create a new Sea Glass Look and Feel instance.
      */
@@ -309,6 +369,17 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
     public void initialize() {
         super.initialize();
 
+        // Release the contexts the Basic UI delegates' lookups use.
+        DefaultLookup.setDefaultLookup(new SeaGlassDefaultLookup());
+
+        // Size the painter image cache from the application's settings.
+        ImageCache.getInstance().configure();
+        TextMetricsCache.clear();
+
+        // Keep the shared derived colors in step with their parents.
+        UIManager.addPropertyChangeListener(derivedColorUpdater);
+        UIManager.getDefaults().addPropertyChangeListener(derivedColorUpdater);
+
         // create synth style factory
         setStyleFactory(new SynthStyleFactory() {
                 @Override
@@ -329,9 +400,13 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
      */
     @Override
     public void uninitialize() {
+        UIManager.removePropertyChangeListener(derivedColorUpdater);
+        UIManager.getDefaults().removePropertyChangeListener(derivedColorUpdater);
         removeOurUIs();
         resetDefaultBorders();
         JFrame.setDefaultLookAndFeelDecorated(false);
+        TextMetricsCache.clear();
+        AbstractRegionPainter.clearColorGetters();
         super.uninitialize();
     }
 
@@ -444,71 +519,169 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
     @Override
     public UIDefaults getDefaults() {
         if (uiDefaults == null) {
-            uiDefaults =  new UIWrapper(super.getDefaults());
-
-            // Install Keybindings for the operating system.
-            if (PlatformUtils.isWindows()) {
-                WindowsKeybindings.installKeybindings(uiDefaults);
-            } else if (PlatformUtils.isMac()) {
-                MacKeybindings.installKeybindings(uiDefaults);
-            } else {
-                GTKKeybindings.installKeybindings(uiDefaults);
-            }
-
-            // Set the default font.
-            defineDefaultFont(uiDefaults);
-
-            // Override some of the Synth UI delegates with copied and modified
-            // versions.
-            useOurUIs();
-
-            defineBaseColors(uiDefaults);
-            defineDefaultBorders(uiDefaults);
-            defineArrowButtons(uiDefaults);
-            defineButtons(uiDefaults);
-            defineComboBoxes(uiDefaults);
-            defineDesktopPanes(uiDefaults);
-            defineInternalFrames(uiDefaults);
-            defineInternalFrameMenuButtons(uiDefaults);
-            defineInternalFrameCloseButtons(uiDefaults);
-            defineInternalFrameIconifyButtons(uiDefaults);
-            defineInternalFrameMaximizeButton(uiDefaults);
-            defineLists(uiDefaults);
-            defineMenus(uiDefaults);
-            definePanels(uiDefaults);
-            definePopups(uiDefaults);
-            defineProgressBars(uiDefaults);
-            defineRootPanes(uiDefaults);
-            defineSeparators(uiDefaults);
-            defineSpinners(uiDefaults);
-            defineScrollBars(uiDefaults);
-            defineScrollPane(uiDefaults);
-            defineSliders(uiDefaults);
-            defineSplitPanes(uiDefaults);
-            defineTabbedPanes(uiDefaults);
-            defineTables(uiDefaults);
-            defineTextControls(uiDefaults);
-            defineToolBars(uiDefaults);
-            defineTrees(uiDefaults);
-            defineToolTips(uiDefaults);
-            defineOptionPane(uiDefaults);
-            defineFileChooser(uiDefaults);
-
-            if (!PlatformUtils.isMac()) {
-                uiDefaults.put("MenuBar[Enabled].backgroundPainter", null);
-                uiDefaults.put("MenuBar[Enabled].borderPainter", null);
-
-                // If we're not on a Mac, draw our own title bar.
-                JFrame.setDefaultLookAndFeelDecorated(true);
-                JDialog.setDefaultLookAndFeelDecorated(true);
-            } else {
+            final UIWrapper defaults = new UIWrapper(super.getDefaults());
+
+            uiDefaults = defaults;
+
+            // The keybindings, font, base colors and borders are read by the
+            // component families, so define them right away.
+            defaults.defineNow(new Section("Keybindings") {
+                    protected void define(UIDefaults d) {
+                        // Install Keybindings for the operating system.
+                        if (PlatformUtils.isWindows()) {
+                            WindowsKeybindings.installKeybindings(d);
+                        } else if (PlatformUtils.isMac()) {
+                            MacKeybindings.installKeybindings(d);
+                        } else {
+                            GTKKeybindings.installKeybindings(d);
+                        }
+                    }
+                }, new Section("DefaultFont") {
+                    protected void define(UIDefaults d) {
+                        // Set the default font.
+                        defineDefaultFont(d);
+                    }
+                }, new Section("UIs") {
+                    protected void define(UIDefaults d) {
+                        // Override some of the Synth UI delegates with copied
+                        // and modified versions.
+                        useOurUIs();
+                    }
+                }, new Section("BaseColors") {
+                    protected void define(UIDefaults d) {
+                        defineBaseColors(d);
+                    }
+                }, new Section("DefaultBorders") {
+                    protected void define(UIDefaults d) {
+                        defineDefaultBorders(d);
+                    }
+                }, new Section("Platform") {
+                    protected void define(UIDefaults d) {
+                        if (!PlatformUtils.isMac()) {
+                            d.put("MenuBar[Enabled].backgroundPainter", null);
+                            d.put("MenuBar[Enabled].borderPainter", null);
+
+                            // If we're not on a Mac, draw our own title bar.
+                            JFrame.setDefaultLookAndFeelDecorated(true);
+                            JDialog.setDefaultLookAndFeelDecorated(true);
+                        } else {
+
+                            // If we're on a Mac, use the screen menu bar.
+                            System.setProperty("apple.laf.useScreenMenuBar", "true");
+
+                            // If we're on a Mac, use Aqua for some things.
+                            defineAquaSettings(d);
+                        }
+                    }
+                });
 
-                // If we're on a Mac, use the screen menu bar.
-                System.setProperty("apple.laf.useScreenMenuBar", "true");
+            // Define each component family on the first lookup of one of its
+            // keys, most applications only use a few of them.
+            defaults.defineLater(new Section("ArrowButtons", "ArrowButton") {
+                    protected void define(UIDefaults d) {
+                        defineArrowButtons(d);
+                    }
+                }, new Section("Buttons", "Button", "ToggleButton", "RadioButton", "CheckBox") {
+                    protected void define(UIDefaults d) {
+                        defineButtons(d);
+                    }
+                }, new Section("ComboBoxes", "ComboBox") {
+                    protected void define(UIDefaults d) {
+                        defineComboBoxes(d);
+                    }
+                }, new Section("DesktopPanes", "DesktopPane", "DesktopIcon") {
+                    protected void define(UIDefaults d) {
+                        defineDesktopPanes(d);
+                    }
+                }, new Section("InternalFrames", "InternalFrame", "InternalFrameTitlePane") {
+                    protected void define(UIDefaults d) {
+                        defineInternalFrames(d);
+                        defineInternalFrameMenuButtons(d);
+                        defineInternalFrameCloseButtons(d);
+                        defineInternalFrameIconifyButtons(d);
+                        defineInternalFrameMaximizeButton(d);
+                    }
+                }, new Section("Lists", "List") {
+                    protected void define(UIDefaults d) {
+                        defineLists(d);
+                    }
+                }, new Section("Menus", "MenuBar", "Menu", "MenuItem", "CheckBoxMenuItem", "RadioButtonMenuItem") {
+                    protected void define(UIDefaults d) {
+                        defineMenus(d);
+                    }
+                }, new Section("Panels", "Panel") {
+                    protected void define(UIDefaults d) {
+                        definePanels(d);
+                    }
+                }, new Section("Popups", "PopupMenu", "PopupMenuSeparator") {
+                    protected void define(UIDefaults d) {
+                        definePopups(d);
+                    }
+                }, new Section("ProgressBars", "ProgressBar") {
+                    protected void define(UIDefaults d) {
+                        defineProgressBars(d);
+                    }
+                }, new Section("RootPanes", "RootPane") {
+                    protected void define(UIDefaults d) {
+                        defineRootPanes(d);
+                    }
+                }, new Section("Separators", "Separator") {
+                    protected void define(UIDefaults d) {
+                        defineSeparators(d);
+                    }
+                }, new Section("Spinners", "Spinner") {
+                    protected void define(UIDefaults d) {
+                        defineSpinners(d);
+                    }
+                }, new Section("ScrollBars", "ScrollBar", "ScrollPane", "Viewport") {
+                    protected void define(UIDefaults d) {
+                        defineScrollBars(d);
+                        defineScrollPane(d);
+                    }
+                }, new Section("Sliders", "Slider") {
+                    protected void define(UIDefaults d) {
+                        defineSliders(d);
+                    }
+                }, new Section("SplitPanes", "SplitPane") {
+                    protected void define(UIDefaults d) {
+                        defineSplitPanes(d);
+                    }
+                }, new Section("TabbedPanes", "TabbedPane") {
+                    protected void define(UIDefaults d) {
+                        defineTabbedPanes(d);
+                    }
+                }, new Section("Tables", "Table", "TableHeader") {
+                    protected void define(UIDefaults d) {
+                        defineTables(d);
+                    }
+                }, new Section("TextControls", "Label", "TextField", "FormattedTextField", "PasswordField", "TextArea", "TextPane", "EditorPane") {
+                    protected void define(UIDefaults d) {
+                        defineTextControls(d);
+                    }
+                }, new Section("ToolBars", "ToolBar", "ToolBarSeparator") {
+                    protected void define(UIDefaults d) {
+                        defineToolBars(d);
+                    }
+                }, new Section("Trees", "Tree") {
+                    protected void define(UIDefaults d) {
+                        defineTrees(d);
+                    }
+                }, new Section("ToolTips", "ToolTip") {
+                    protected void define(UIDefaults d) {
+                        defineToolTips(d);
+                    }
+                }, new Section("OptionPanes", "OptionPane", "ColorChooser") {
+                    protected void define(UIDefaults d) {
+                        defineOptionPane(d);
+                    }
+                }, new Section("FileChoosers", "FileChooser") {
+                    protected void define(UIDefaults d) {
+                        defineFileChooser(d);
+                    }
+                });
 
-                // If we're on a Mac, use Aqua for some things.
-                defineAquaSettings(uiDefaults);
-            }
+            // From now on serve lookups from a snapshot which needs no lock.
+            defaults.freeze();
         }
 
         return uiDefaults;
@@ -593,6 +766,69 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
     }
     
     
+    /**
+     * Find the most specific of the given styles which matches the component.
+     *
+     * @param  c      the component.
+     * @param  styles the styles to try, in the order they were registered.
+     *
+     * @return the best matching style, or {@code null} if none match.
+     */
+    private LazyStyle findBestStyle(JComponent c, LazyStyle[] styles) {
+        LazyStyle foundStyle = null;
+
+        for (LazyStyle s : styles) {
+
+            if (s.matches(c)) {
+
+                /*
+                 * Replace the foundStyle if foundStyle is null, or if the new
+                 * style "s" is more specific (ie, its path was longer), or if
+                 * the foundStyle was "simple" and the new style was not (ie:
+                 * the foundStyle was for something like Button and the new
+                 * style was for something like "MyButton", hence, being more
+                 * specific). In all cases, favor the most specific style found.
+                 */
+                if (foundStyle == null || (foundStyle.parts.length < s.parts.length)
+                        || (foundStyle.parts.length == s.parts.length && foundStyle.simple && !s.simple)) {
+                    foundStyle = s;
+                }
+            }
+        }
+
+        return foundStyle;
+    }
+
+    /**
+     * Get the styles of a region which could match a component with the given
+     * name. Styles whose last part names a different component can never
+     * match, so they are left out without walking the component's ancestors.
+     * Must be called holding the lock on resolvedStyles.
+     *
+     * @param  r      the region.
+     * @param  styles all the styles registered for the region.
+     * @param  name   the component's name, may be {@code null}.
+     *
+     * @return the candidate styles, in the order they were registered.
+     */
+    private StyleCandidates getStyleCandidates(Region r, List<LazyStyle> styles, String name) {
+        Map<String, StyleCandidates> byName = candidateStyles.get(r);
+
+        if (byName == null) {
+            byName = new LruMap<String, StyleCandidates>(16, MAX_CANDIDATE_NAMES);
+            candidateStyles.put(r, byName);
+        }
+
+        StyleCandidates candidates = byName.get(name);
+
+        if (candidates == null) {
+            candidates = new StyleCandidates(styles, name);
+            byName.put(name, candidates);
+        }
+
+        return candidates;
+    }
+
     /**
      * A convience method that will reset the Style of StyleContext if
      * necessary.
@@ -2367,7 +2603,7 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
         d.put(p + "[Disabled+Selected].backgroundPainter",
               new LazyPainter(c, ToolBarToggleButtonPainter.Which.BACKGROUND_DISABLED_SELECTED));
 
-        uiDefaults.put("ToolBarSeparator[Enabled].backgroundPainter", null);
+        d.put("ToolBarSeparator[Enabled].backgroundPainter", null);
     }
 
     /**
@@ -2654,6 +2890,12 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
 
         // add this region to the map of registered regions
         registeredRegions.put(region.getName(), region);
+
+        // Matches may now resolve differently.
+        synchronized (resolvedStyles) {
+            resolvedStyles.clear();
+            candidateStyles.clear();
+        }
     }
 
     /**
@@ -2691,25 +2933,24 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
             return getDefaultStyle();
         }
 
-        // Look for the best SynthStyle for this component/region pair.
-        LazyStyle foundStyle = null;
+        // Look for the best SynthStyle for this component/region pair, unless
+        // it has already been found for a component with the same class, name
+        // and ancestors.
+        LazyStyle foundStyle;
 
-        for (LazyStyle s : styles) {
+        synchronized (resolvedStyles) {
+            StyleCandidates candidates = getStyleCandidates(r, styles, c.getName());
+            StyleKey        key        = StyleKey.create(r, c, candidates.depth);
+            Object          resolved   = key == null ? null : resolvedStyles.get(key);
 
-            if (s.matches(c)) {
+            if (resolved == null) {
+                foundStyle = findBestStyle(c, candidates.styles);
 
-                /*
-                 * Replace the foundStyle if foundStyle is null, or if the new
-                 * style "s" is more specific (ie, its path was longer), or if
-                 * the foundStyle was "simple" and the new style was not (ie:
-                 * the foundStyle was for something like Button and the new
-                 * style was for something like "MyButton", hence, being more
-                 * specific). In all cases, favor the most specific style found.
-                 */
-                if (foundStyle == null || (foundStyle.parts.length < s.parts.length)
-                        || (foundStyle.parts.length == s.parts.length && foundStyle.simple && !s.simple)) {
-                    foundStyle = s;
+                if (key != null) {
+                    resolvedStyles.put(key, foundStyle == null ? NO_STYLE : foundStyle);
                 }
+            } else {
+                foundStyle = resolved == NO_STYLE ? null : (LazyStyle) resolved;
             }
         }
 
@@ -2975,6 +3216,14 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
          */
         @SuppressWarnings("unchecked")
         public Object createValue(UIDefaults table) {
+            // Our own painters are created directly, reflection is only needed
+            // for painters from elsewhere.
+            Object painter = PainterFactory.createPainter(className, which);
+
+            if (painter != null) {
+                return painter;
+            }
+
             Constructor constructor = null;
             Object cl = null;
             try {
@@ -3323,6 +3572,129 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
         }
     }
 
+    /**
+     * The styles of a region which could match components with a particular
+     * name.
+     */
+    private static final class StyleCandidates {
+
+        /** The candidate styles, in the order they were registered. */
+        private final LazyStyle[] styles;
+
+        /** How many ancestors the candidate styles can look at. */
+        private final int depth;
+
+        /**
+         * Creates a new StyleCandidates object.
+         *
+         * @param styles all the styles registered for a region.
+         * @param name   the component name, may be {@code null}.
+         */
+        StyleCandidates(List<LazyStyle> styles, String name) {
+            List<LazyStyle> list     = new ArrayList<LazyStyle>(styles.size());
+            int             maxDepth = 0;
+
+            for (LazyStyle s : styles) {
+                LazyStyle.Part leaf = s.parts.length == 0 ? null : s.parts[s.parts.length - 1];
+
+                if (leaf == null || !leaf.named || leaf.s.equals(name)) {
+                    list.add(s);
+                    maxDepth = Math.max(maxDepth, s.parts.length - 1);
+                }
+            }
+
+            this.styles = list.toArray(new LazyStyle[list.size()]);
+            this.depth  = maxDepth;
+        }
+    }
+
+    /**
+     * Identifies everything about a component which matching a style looks at:
+     * the region, and the class and name of the component and of as many of its
+     * ancestors as the styles of the region have parts.
+     */
+    private static final class StyleKey {
+        private final Region     region;
+        private final Class<?>[] classes;
+        private final String[]   names;
+        private final int        hash;
+
+        /**
+         * Creates a new StyleKey object.
+         *
+         * @param region  the region.
+         * @param classes the classes of the component and its ancestors.
+         * @param names   the names of the component and its ancestors.
+         */
+        private StyleKey(Region region, Class<?>[] classes, String[] names) {
+            this.region  = region;
+            this.classes = classes;
+            this.names   = names;
+            this.hash    = (region.hashCode() * 31 + Arrays.hashCode(classes)) * 31 + Arrays.hashCode(names);
+        }
+
+        /**
+         * Create a key for a component.
+         *
+         * @param  r     the region.
+         * @param  c     the component.
+         * @param  depth the number of ancestors to include.
+         *
+         * @return the key, or {@code null} if the component's hierarchy can't
+         *         be described by a key.
+         */
+        static StyleKey create(Region r, JComponent c, int depth) {
+            Class<?>[] classes = new Class<?>[depth + 1];
+            String[]   names   = new String[depth + 1];
+            int        count   = 0;
+
+            for (Component p = c; p != null && count <= depth; p = p.getParent()) {
+
+                // Desktop icons are matched against their internal frame
+                // instead, which is not an ancestor.
+                if (p instanceof JInternalFrame.JDesktopIcon) {
+                    return null;
+                }
+
+                classes[count] = p.getClass();
+                names[count]   = p.getName();
+                count++;
+            }
+
+            if (count <= depth) {
+                classes = Arrays.copyOf(classes, count);
+                names   = Arrays.copyOf(names, count);
+            }
+
+            return new StyleKey(r, classes, names);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof StyleKey)) {
+                return false;
+            }
+
+            StyleKey other = (StyleKey) obj;
+
+            return hash == other.hash && region == other.region && Arrays.equals(classes, other.classes)
+                && Arrays.equals(names, other.names);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     // Private stuff added from Synth
 
     /**
@@ -3387,6 +3759,33 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
             return false;
         }
     }
+
+    /**
+     * Looks up the defaults which the Basic UI delegates read through
+     * DefaultLookup in the component's style, as Synth does, and then releases
+     * the context used, which Synth's lookup never does.
+     */
+    private static final class SeaGlassDefaultLookup extends DefaultLookup {
+
+        /**
+         * @see sun.swing.DefaultLookup#getDefault(javax.swing.JComponent, javax.swing.plaf.ComponentUI, java.lang.String)
+         */
+        @Override
+        public Object getDefault(JComponent c, ComponentUI ui, String key) {
+            if (!(ui instanceof SynthUI)) {
+                return super.getDefault(c, ui, key);
+            }
+
+            SynthContext context = ((SynthUI) ui).getContext(c);
+            Object       value   = context.getStyle().get(context, key);
+
+            if (context instanceof SeaGlassContext) {
+                ((SeaGlassContext) context).dispose();
+            }
+
+            return value;
+        }
+    }
     
     
    // THIS IS ALL COPIED FROM NIMBUS L&F
@@ -3433,9 +3832,146 @@ public class SeaGlassLookAndFeel extends SynthLookAndFeel {
                 color = new DerivedColor(parentUin, hOffset, sOffset,
                     bOffset, aOffset);
             }
+
+            synchronized (derivedColors) {
+                DerivedColor shared = derivedColors.get(color);
+                if (shared != null) {
+                    return shared;
+                }
+
+                derivedColors.put(color, color);
+                List<DerivedColor> siblings = derivedColorsByParent.get(parentUin);
+                if (siblings == null) {
+                    siblings = new ArrayList<DerivedColor>();
+                    derivedColorsByParent.put(parentUin, siblings);
+                }
+                siblings.add(color);
+            }
+
+            // Once we're installed the parent can be resolved, so derive the
+            // value now rather than on the first call to getRGB(). Until then,
+            // and while a section of the defaults which may define the parent
+            // later on is being defined, the color derives itself lazily.
+            if (isInstalled() && !UIWrapper.isDefiningSection()) {
+                color.rederiveColor(UIManager.getColor(parentUin));
+            }
             return color;
         }
 
+        /**
+         * Returns whether our defaults are the ones the UIManager is using, in
+         * which case parent colors can be resolved through the UIManager.
+         *
+         * @return <code>true</code> if this look and feel is installed,
+         *         <code>false</code> otherwise.
+         */
+        private boolean isInstalled() {
+            return uiDefaults != null && UIManager.getLookAndFeelDefaults() == uiDefaults;
+        }
+
+        /**
+         * Re-derive the shared derived colors whose parent is one of the given
+         * UIDefaults keys, then their dependents, and so on, in a single pass.
+         * Parents are always re-derived before their children.
+         *
+         * @param changedKeys the UIDefaults keys whose values have changed, or
+         *                    <code>null</code> to re-derive every shared
+         *                    derived color.
+         */
+        private void rederiveColors(Set<String> changedKeys) {
+            Map<String, List<DerivedColor>> byParent;
+            synchronized (derivedColors) {
+                byParent = new HashMap<String, List<DerivedColor>>(derivedColorsByParent.size());
+                for (Map.Entry<String, List<DerivedColor>> entry : derivedColorsByParent.entrySet()) {
+                    byParent.put(entry.getKey(), new ArrayList<DerivedColor>(entry.getValue()));
+                }
+            }
+
+            // Find the keys which hold derived colors so that changes can be
+            // followed down to grandchildren, e.g. seaGlassBase to
+            // seaGlassBlueGrey to the colors derived from seaGlassBlueGrey.
+            // Sections of the defaults not defined yet hold no derived colors.
+            final Map<DerivedColor, List<String>> keysByColor = new HashMap<DerivedColor, List<String>>();
+            UIWrapper.enumerateDefined(new Runnable() {
+                    public void run() {
+                        for (Map.Entry<Object, Object> entry : uiDefaults.entrySet()) {
+                            if (entry.getKey() instanceof String && entry.getValue() instanceof DerivedColor) {
+                                List<String> keys = keysByColor.get(entry.getValue());
+                                if (keys == null) {
+                                    keys = new ArrayList<String>(1);
+                                    keysByColor.put((DerivedColor) entry.getValue(), keys);
+                                }
+                                keys.add((String) entry.getKey());
+                            }
+                        }
+                    }
+                });
+
+            LinkedList<String> pending = new LinkedList<String>();
+            if (changedKeys == null) {
+                // Start from the roots: parents which are not themselves
+                // derived colors.
+                for (String parent : byParent.keySet()) {
+                    if (!(UIManager.get(parent) instanceof DerivedColor)) {
+                        pending.add(parent);
+                    }
+                }
+            } else {
+                pending.addAll(changedKeys);
+            }
+
+            Set<String> visited = new HashSet<String>();
+            while (!pending.isEmpty()) {
+                String parent = pending.removeFirst();
+                if (!visited.add(parent)) {
+                    continue;
+                }
+
+                List<DerivedColor> children = byParent.get(parent);
+                if (children == null) {
+                    continue;
+                }
+
+                Color parentColor = UIManager.getColor(parent);
+                for (DerivedColor child : children) {
+                    child.rederiveColor(parentColor);
+                    List<String> keys = keysByColor.get(child);
+                    if (keys != null) {
+                        pending.addAll(keys);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Listens to the UIManager and its defaults and keeps the shared
+         * derived colors up to date.
+         */
+        private class DerivedColorUpdater implements PropertyChangeListener {
+
+            /**
+             * {@inheritDoc}
+             */
+            public void propertyChange(PropertyChangeEvent evt) {
+                String name = evt.getPropertyName();
+                if (evt.getSource() instanceof UIDefaults) {
+                    boolean isParent;
+                    synchronized (derivedColors) {
+                        isParent = derivedColorsByParent.containsKey(name);
+                    }
+                    if (isParent && isInstalled()) {
+                        rederiveColors(Collections.singleton(name));
+                        // Painted images were made with the old colors.
+                        ImageCache.getInstance().flush();
+                    }
+                } else if ("lookAndFeel".equals(name) && evt.getNewValue() == SeaGlassLookAndFeel.this && isInstalled()) {
+                    // Derive everything created while building the defaults
+                    // now that the parents can be resolved.
+                    rederiveColors(null);
+                }
+            }
+        }
+
         /**
          * Decodes and returns a color, which is derived from an offset between two
          * other colors.
@@ -39,6 +39,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import javax.swing.JComponent;
 import javax.swing.UIDefaults;
@@ -57,6 +59,7 @@ import com.seaglasslookandfeel.component.SeaGlassBorder;
 import com.seaglasslookandfeel.painter.SeaGlassPainter;
 import com.seaglasslookandfeel.state.State;
 import com.seaglasslookandfeel.ui.SeaglassUI;
+import com.seaglasslookandfeel.util.LruMap;
 import com.seaglasslookandfeel.util.SeaGlassGraphicsUtils;
 
 /**
@@ -196,6 +199,24 @@ public class SeaGlassStyle extends SynthStyle {
     /** Shared SynthGraphics. */
     private static final SynthGraphicsUtils SEAGLASS_GRAPHICS = new SeaGlassGraphicsUtils();
 
+    /**
+     * The maximum number of parsed "SeaGlass.State" values remembered per
+     * Values instance.
+     */
+    private static final int MAX_FORCED_STATES = 32;
+
+    /** The number of keys remembered in PARTIAL_KEYS. */
+    private static final int MAX_PARTIAL_KEYS = 512;
+
+    /**
+     * Maps the keys passed to get() onto their partial keys, that is the key
+     * with its prefix stripped off. The partial keys are interned so that they
+     * may be compared by identity in the value caches. Only the most recently
+     * used keys are kept, since any key may be passed to get(). Guarded by
+     * itself.
+     */
+    private static final Map<Object, String> PARTIAL_KEYS = new LruMap<Object, String>(MAX_PARTIAL_KEYS * 2, MAX_PARTIAL_KEYS);
+
     /**
      * <p>The Color to return from getColorForState if it would otherwise have
      * returned null.</p>
@@ -232,13 +253,7 @@ public class SeaGlassStyle extends SynthStyle {
      * properties of a component. These values are lazily created on first
      * access.
      */
-    private Values values;
-
-    /**
-     * A temporary CacheKey used to perform lookups. This pattern avoids
-     * creating useless garbage keys, or concatenating strings, etc.
-     */
-    private CacheKey tmpKey = new CacheKey("", 0);
+    private volatile Values values;
 
     /**
      * Some SeaGlassStyles are created for a specific component only. In
@@ -380,7 +395,7 @@ public class SeaGlassStyle extends SynthStyle {
         // and possibly based on any overrides within the component's
         // client properties (assuming such a component exists and contains
         // any SeaGlass.Overrides)
-        values = new Values();
+        Values v = new Values();
 
         // the profiler revealed that a great deal of CPU time and useless
         // garbage was being produced by this method and the init method. One
@@ -392,6 +407,15 @@ public class SeaGlassStyle extends SynthStyle {
         // changes and recomputed when necessary.
         final AppContext ctx = AppContext.getAppContext();
 
+        // SeaGlassLookAndFeel defines the defaults of each component family
+        // when first needed. Define this style's family before reading the
+        // compiled defaults, since defining it clears them.
+        final UIDefaults lafDefaults = UIManager.getLookAndFeelDefaults();
+
+        if (lafDefaults instanceof UIWrapper) {
+            ((UIWrapper) lafDefaults).defineFamily(prefix);
+        }
+
         // fetch the defaults from the app context. If null, then create and
         // store the compiled defaults
         Map<String, TreeMap<String, Object>> compiledDefaults = (Map<String, TreeMap<String, Object>>) ctx.get("SeaGlassStyle.defaults");
@@ -402,16 +426,23 @@ public class SeaGlassStyle extends SynthStyle {
             // this map of maps. The key of the compiledDefaults is the
             // prefix for each style, while the value is a map of
             // keys->values for that prefix.
-            compiledDefaults = new HashMap<String, TreeMap<String, Object>>();
-
-            // get all the defaults from UIManager.getDefaults() and put them
-            // into the compiledDefaults
-            compileDefaults(compiledDefaults, UIManager.getDefaults());
-
-            // This second statement pulls defaults from the laf defaults
-            UIDefaults lafDefaults = UIManager.getLookAndFeelDefaults();
+            final Map<String, TreeMap<String, Object>> compiled = new HashMap<String, TreeMap<String, Object>>();
+
+            // Only the families defined so far are compiled, the others are
+            // compiled again once defined.
+            UIWrapper.enumerateDefined(new Runnable() {
+                    public void run() {
+                        // get all the defaults from UIManager.getDefaults()
+                        // and put them into the compiledDefaults
+                        compileDefaults(compiled, UIManager.getDefaults());
+
+                        // This second statement pulls defaults from the laf
+                        // defaults
+                        compileDefaults(compiled, lafDefaults);
+                    }
+                });
 
-            compileDefaults(compiledDefaults, lafDefaults);
+            compiledDefaults = compiled;
 
             // if it has not already been done, add a listener to both
             // UIManager.getDefaults() and UIManager.getLookAndFeelDefaults().
@@ -482,8 +513,10 @@ public class SeaGlassStyle extends SynthStyle {
 
         // Now that I've accumulated all the defaults pertaining to this
         // style, call init which will read these defaults and configure
-        // the default "values".
-        init(values, defaults);
+        // the default "values". The values are only published once they
+        // are complete, so that other threads never see them half built.
+        init(v, defaults);
+        values = v;
     }
 
     /**
@@ -577,6 +610,7 @@ public class SeaGlassStyle extends SynthStyle {
             // standard synth states).
             if (states.size() > 0) {
                 v.stateTypes = states.toArray(new State[states.size()]);
+                v.compileStateTypes();
             }
 
             // assign codes for each of the state types
@@ -990,18 +1024,17 @@ public class SeaGlassStyle extends SynthStyle {
         Values v = getValues(ctx);
 
         // strip off the prefix, if there is one.
-        String fullKey    = key.toString();
-        String partialKey = fullKey.substring(fullKey.indexOf(".") + 1);
+        String partialKey = getPartialKey(key);
 
         Object obj    = null;
         int    xstate = getExtendedState(ctx, v);
 
         // check the cache
-        tmpKey.init(partialKey, xstate);
-        obj = v.cache.get(tmpKey);
+        obj = v.cache.get(partialKey, xstate);
         boolean wasInCache = obj != null;
 
         if (!wasInCache) {
+            String fullKey = key.toString();
 
             // Search exact matching states and then lesser matching states
             RuntimeState s         = null;
@@ -1017,9 +1050,11 @@ public class SeaGlassStyle extends SynthStyle {
             }
 
             // return found object
-            // Search UIManager Defaults
+            // Search UIManager Defaults. The defaults of this style's family
+            // were defined by validate(), and no family defines the top level
+            // properties, such as "font", so define nothing more.
             if (obj == null)
-                obj = UIManager.get(fullKey);
+                obj = UIWrapper.getDefined(fullKey);
 
             // Search Synth Defaults for InputMaps
             if (obj == null && partialKey.equals("focusInputMap")) {
@@ -1027,7 +1062,7 @@ public class SeaGlassStyle extends SynthStyle {
             }
 
             // if all we got was a null, store this fact for later use
-            v.cache.put(new CacheKey(partialKey, xstate), obj == null ? NULL : obj);
+            v.cache.put(partialKey, xstate, obj == null ? NULL : obj);
         }
 
         // return found object
@@ -1050,8 +1085,7 @@ public class SeaGlassStyle extends SynthStyle {
         SeaGlassPainter p      = null;
 
         // check the cache
-        tmpKey.init("backgroundPainter$$instance", xstate);
-        p = (SeaGlassPainter) v.cache.get(tmpKey);
+        p = (SeaGlassPainter) v.cache.get("backgroundPainter$$instance", xstate);
 
         if (p != null)
             return p;
@@ -1073,7 +1107,7 @@ public class SeaGlassStyle extends SynthStyle {
             p = (SeaGlassPainter) get(ctx, "backgroundPainter");
 
         if (p != null) {
-            v.cache.put(new CacheKey("backgroundPainter$$instance", xstate), p);
+            v.cache.put("backgroundPainter$$instance", xstate, p);
         }
 
         return p;
@@ -1095,8 +1129,7 @@ public class SeaGlassStyle extends SynthStyle {
         SeaGlassPainter p      = null;
 
         // check the cache
-        tmpKey.init("foregroundPainter$$instance", xstate);
-        p = (SeaGlassPainter) v.cache.get(tmpKey);
+        p = (SeaGlassPainter) v.cache.get("foregroundPainter$$instance", xstate);
 
         if (p != null)
             return p;
@@ -1118,7 +1151,7 @@ public class SeaGlassStyle extends SynthStyle {
             p = (SeaGlassPainter) get(ctx, "foregroundPainter");
 
         if (p != null) {
-            v.cache.put(new CacheKey("foregroundPainter$$instance", xstate), p);
+            v.cache.put("foregroundPainter$$instance", xstate, p);
         }
 
         return p;
@@ -1140,8 +1173,7 @@ public class SeaGlassStyle extends SynthStyle {
         SeaGlassPainter p      = null;
 
         // check the cache
-        tmpKey.init("borderPainter$$instance", xstate);
-        p = (SeaGlassPainter) v.cache.get(tmpKey);
+        p = (SeaGlassPainter) v.cache.get("borderPainter$$instance", xstate);
 
         if (p != null)
             return p;
@@ -1163,12 +1195,36 @@ public class SeaGlassStyle extends SynthStyle {
             p = (SeaGlassPainter) get(ctx, "borderPainter");
 
         if (p != null) {
-            v.cache.put(new CacheKey("borderPainter$$instance", xstate), p);
+            v.cache.put("borderPainter$$instance", xstate, p);
         }
 
         return p;
     }
 
+    /**
+     * Strips the prefix off the given key. The result is interned and
+     * remembered, so that after the first lookup of a key no garbage is
+     * produced.
+     *
+     * @param  key the key passed to get(). Must not be null.
+     *
+     * @return the interned partial key.
+     */
+    private static String getPartialKey(Object key) {
+        synchronized (PARTIAL_KEYS) {
+            String partialKey = PARTIAL_KEYS.get(key);
+
+            if (partialKey == null) {
+                String fullKey = key.toString();
+
+                partialKey = fullKey.substring(fullKey.indexOf(".") + 1).intern();
+                PARTIAL_KEYS.put(key, partialKey);
+            }
+
+            return partialKey;
+        }
+    }
+
     /**
      * Utility method which returns the proper Values based on the given
      * SynthContext. Ensures that parsing of the values has occurred, or
@@ -1196,7 +1252,7 @@ public class SeaGlassStyle extends SynthStyle {
      *
      * @return true or false based on whether the given name is in the array
      */
-    private boolean contains(String[] names, String name) {
+    private static boolean contains(String[] names, String name) {
         assert name != null;
 
         for (int i = 0; i < names.length; i++) {
@@ -1237,9 +1293,7 @@ public class SeaGlassStyle extends SynthStyle {
      * @return
      */
     private int getExtendedState(SynthContext ctx, Values v) {
-        JComponent c      = ctx.getComponent();
-        int        xstate = 0;
-        int        mask   = 1;
+        JComponent c = ctx.getComponent();
 
         // check for the SeaGlass.State client property
         // Performance NOTE: getClientProperty ends up inside a synchronized
@@ -1248,48 +1302,28 @@ public class SeaGlassStyle extends SynthStyle {
         Object property = c.getClientProperty("SeaGlass.State");
 
         if (property != null) {
-            String   stateNames = property.toString();
-            String[] states     = stateNames.split("\\+");
-
-            if (v.stateTypes == null) {
-
-                // standard states only
-                for (String stateStr : states) {
-                    State.StandardState s = State.getStandardState(stateStr);
-
-                    if (s != null)
-                        xstate |= s.getState();
-                }
-            } else {
-
-                // custom states
-                for (State s : v.stateTypes) {
-
-                    if (contains(states, s.getName())) {
-                        xstate |= mask;
-                    }
-
-                    mask <<= 1;
-                }
-            }
-        } else {
-
-            // if there are no custom states defined, then simply return the
-            // state that Synth reported
-            if (v.stateTypes == null)
-                return ctx.getComponentState();
-
-            // there are custom states on this values, so I'll have to iterate
-            // over them all and return a custom extended state
-            int state = ctx.getComponentState();
-
-            for (State s : v.stateTypes) {
-
-                if (s.isInState(c, state)) {
-                    xstate |= mask;
-                }
+            return v.getForcedState(property.toString());
+        }
 
-                mask <<= 1;
+        // if there are no custom states defined, then simply return the
+        // state that Synth reported
+        if (v.stateTypes == null)
+            return ctx.getComponentState();
+
+        // there are custom states on this values, so I'll have to iterate
+        // over them all and return a custom extended state. Standard states
+        // are tested against their precompiled bit, only the custom states
+        // need their predicate evaluated.
+        State[] stateTypes = v.stateTypes;
+        int[]   stateBits  = v.stateBits;
+        int     state      = ctx.getComponentState();
+        int     xstate     = 0;
+
+        for (int i = 0; i < stateTypes.length; i++) {
+            int bit = stateBits[i];
+
+            if (bit != 0 ? (state & bit) == bit : stateTypes[i].isInState(c, state)) {
+                xstate |= 1 << i;
             }
         }
 
@@ -1502,74 +1536,227 @@ public class SeaGlassStyle extends SynthStyle {
 
         /**
          * Simple cache. After a value has been looked up, it is stored in this
-         * cache for later retrieval. The key is a concatenation of the property
-         * being looked up, two dollar signs, and the extended state. So for
-         * example:
+         * cache for later retrieval, keyed by the partial key of the property
+         * being looked up and the extended state.
+         */
+        ValueCache cache = new ValueCache();
+
+        /**
+         * The compiled form of stateTypes. For each state type this holds the
+         * synth state bit if it is a standard state, or 0 if it is a custom
+         * state whose predicate must be evaluated.
+         */
+        int[] stateBits = null;
+
+        /**
+         * The extended states already parsed from "SeaGlass.State" client
+         * property values. The key is the property value itself, so changing
+         * the property simply selects another entry.
+         */
+        Map<String, Integer> forcedStates = new ConcurrentHashMap<String, Integer>();
+
+        /**
+         * Compile the stateTypes array into the stateBits table. Must be called
+         * whenever stateTypes is assigned.
+         */
+        void compileStateTypes() {
+            stateBits = new int[stateTypes.length];
+
+            for (int i = 0; i < stateTypes.length; i++) {
+
+                if (stateTypes[i] instanceof State.StandardState) {
+                    stateBits[i] = ((State.StandardState) stateTypes[i]).getState();
+                }
+            }
+        }
+
+        /**
+         * Get the extended state the developer forced the component into by
+         * means of the "SeaGlass.State" client property. The string is only
+         * parsed the first time it is seen.
+         *
+         * @param  stateNames the value of the client property.
+         *
+         * @return the extended state.
+         */
+        int getForcedState(String stateNames) {
+            Integer xstate = forcedStates.get(stateNames);
+
+            if (xstate == null) {
+                xstate = parseForcedState(stateNames);
+
+                if (forcedStates.size() >= MAX_FORCED_STATES) {
+                    forcedStates.clear();
+                }
+
+                forcedStates.put(stateNames, xstate);
+            }
+
+            return xstate;
+        }
+
+        /**
+         * Decompose a "SeaGlass.State" client property value, of the form
+         * "Enabled+CustomState+MouseOver", into an extended state.
+         *
+         * @param  stateNames the value of the client property.
          *
-         * <p>foo.bar$$2353</p>
+         * @return the extended state.
          */
-        Map<CacheKey, Object> cache = new HashMap<CacheKey, Object>();
+        private int parseForcedState(String stateNames) {
+            String[] states = stateNames.split("\\+");
+            int      xstate = 0;
+
+            if (stateTypes == null) {
+
+                // standard states only
+                for (String stateStr : states) {
+                    State.StandardState s = State.getStandardState(stateStr);
+
+                    if (s != null)
+                        xstate |= s.getState();
+                }
+            } else {
+
+                // custom states
+                for (int i = 0; i < stateTypes.length; i++) {
+
+                    if (contains(states, stateTypes[i].getName())) {
+                        xstate |= 1 << i;
+                    }
+                }
+            }
+
+            return xstate;
+        }
     }
 
     /**
-     * This implementation presupposes that key is never null and that the two
-     * keys being checked for equality are never null
+     * An open addressing hash map from (interned key, extended state) to value.
+     * Lookups take no locks and produce no garbage, so that get() may be
+     * called from any thread, for example while printing. Insertions are
+     * serialized. A slot's state and value are written before its key, and the
+     * key is read before them, so a reader that sees a key also sees the rest
+     * of the entry. Growing the table builds a new one, which is published
+     * once complete.
      */
-    private static final class CacheKey {
-        private String key;
-        private int    xstate;
+    private static final class ValueCache {
+        private volatile Table table = new Table(32);
+        private int            size;
 
         /**
-         * Creates a new CacheKey object.
+         * Get the cached value.
          *
-         * @param key    the key.
-         * @param xstate the extended state.
+         * @param  key    the interned key.
+         * @param  xstate the extended state.
+         *
+         * @return the value, or null if there is none.
          */
-        CacheKey(Object key, int xstate) {
-            init(key, xstate);
+        Object get(String key, int xstate) {
+            Table t    = table;
+            int   mask = t.states.length - 1;
+
+            for (int i = hash(key, xstate) & mask;; i = (i + 1) & mask) {
+                String k = t.keys.get(i);
+
+                if (k == null) {
+                    return null;
+                } else if (k == key && t.states[i] == xstate) {
+                    return t.values[i];
+                }
+            }
         }
 
         /**
-         * Initialize the CacheKey object with its values.
+         * Cache a value. If a value is already cached for the key and state,
+         * as happens when two threads look it up at the same time, the
+         * existing value is kept.
          *
-         * @param key    the key.
+         * @param key    the interned key.
          * @param xstate the extended state.
+         * @param value  the value. Must not be null.
          */
-        void init(Object key, int xstate) {
-            this.key    = key.toString();
-            this.xstate = xstate;
-        }
+        synchronized void put(String key, int xstate, Object value) {
+            Table t = table;
 
-        /**
-         * @see java.lang.Object#equals(java.lang.Object)
-         */
-        @Override
-        public boolean equals(Object obj) {
-            final CacheKey other = (CacheKey) obj;
+            if ((size + 1) * 2 > t.states.length) {
+                Table grown = new Table(t.states.length * 2);
 
-            if (obj == null)
-                return false;
+                for (int i = 0; i < t.states.length; i++) {
+                    String k = t.keys.get(i);
 
-            if (this.xstate != other.xstate)
-                return false;
+                    if (k != null) {
+                        grown.insert(k, t.states[i], t.values[i]);
+                    }
+                }
 
-            if (!this.key.equals(other.key))
-                return false;
+                table = t = grown;
+            }
 
-            return true;
+            if (t.insert(key, xstate, value)) {
+                size++;
+            }
         }
 
         /**
-         * @see java.lang.Object#hashCode()
+         * Hash a key and an extended state.
+         *
+         * @param  key    the key.
+         * @param  xstate the extended state.
+         *
+         * @return the hash code.
          */
-        @Override
-        public int hashCode() {
-            int hash = 3;
+        private static int hash(String key, int xstate) {
+            int h = key.hashCode() ^ (xstate * 0x9E3779B9);
 
-            hash = 29 * hash + this.key.hashCode();
-            hash = 29 * hash + this.xstate;
+            return h ^ (h >>> 16);
+        }
 
-            return hash;
+        /**
+         * The slots of a ValueCache.
+         */
+        private static final class Table {
+            final AtomicReferenceArray<String> keys;
+            final int[]                        states;
+            final Object[]                     values;
+
+            /**
+             * Creates a new Table object.
+             *
+             * @param capacity the number of slots, a power of two.
+             */
+            Table(int capacity) {
+                keys   = new AtomicReferenceArray<String>(capacity);
+                states = new int[capacity];
+                values = new Object[capacity];
+            }
+
+            /**
+             * Insert an entry unless the key and state are already present.
+             *
+             * @param  key    the interned key.
+             * @param  xstate the extended state.
+             * @param  value  the value.
+             *
+             * @return true if the entry was inserted.
+             */
+            boolean insert(String key, int xstate, Object value) {
+                int mask = states.length - 1;
+
+                for (int i = hash(key, xstate) & mask;; i = (i + 1) & mask) {
+                    String k = keys.get(i);
+
+                    if (k == null) {
+                        states[i] = xstate;
+                        values[i] = value;
+                        keys.set(i, key);
+
+                        return true;
+                    } else if (k == key && states[i] == xstate) {
+                        return false;
+                    }
+                }
+            }
         }
     }
 
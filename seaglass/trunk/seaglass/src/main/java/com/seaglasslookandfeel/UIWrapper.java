@@ -5,32 +5,507 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Insets;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.swing.Icon;
 import javax.swing.JComponent;
 import javax.swing.UIDefaults;
+import javax.swing.UIManager;
 import javax.swing.border.Border;
 import javax.swing.plaf.ComponentUI;
 
 public class UIWrapper extends UIDefaults {
-    
+
+    /**
+     * The system property which, set to true, prints how long each section of
+     * the defaults took to define.
+     */
+    public static final String TIMING_KEY = "SeaGlass.Defaults.timing";
+
+    /**
+     * Set on a thread which is defining a section, or enumerating only the
+     * sections defined so far. Pending sections are never defined on behalf
+     * of such a thread.
+     */
+    private static final ThreadLocal<Boolean> definingSection = new ThreadLocal<Boolean>();
+
     private UIDefaults delegate;
     private Set<Object> missingDefaults = new HashSet();
 
+    /** The most lookups of keys not in the snapshot to remember. */
+    private static final int MAX_MISSES = 1024;
+
+    /** Marks a remembered lookup which found no value. */
+    private static final Object NO_VALUE = new Object();
+
+    /**
+     * A copy of the delegate, or null if this wrapper has not been frozen.
+     * Reads from it take no lock, unlike reads from the delegate, which is a
+     * synchronized Hashtable. It is changed in place along with the delegate,
+     * and a LazyValue in it is replaced by the value it creates.
+     */
+    private volatile ConcurrentMap<Object, Object> snapshot;
+
+    /**
+     * The values looked up in the delegate for keys which are not in the
+     * snapshot, found in a resource bundle or NO_VALUE, so that asking again
+     * for a missing key takes no lock either. Filled while holding the
+     * delegate's lock, and cleared whenever the delegate, its resource bundles
+     * or its locale change.
+     */
+    private final ConcurrentMap<Object, Object> misses = new ConcurrentHashMap<Object, Object>();
+
+    /**
+     * The sections not defined yet, by the component families whose keys they
+     * define. Entries are removed while holding the delegate's lock.
+     */
+    private final ConcurrentMap<String, Section> pending = new ConcurrentHashMap<String, Section>();
+
+    /**
+     * The sections to be defined later, in the order they were given. Guarded
+     * by the delegate's lock.
+     */
+    private final List<Section> sections = new ArrayList<Section>();
+
+    /**
+     * The number of sections being defined. Changed while holding the
+     * delegate's lock.
+     */
+    private volatile int defining;
+
+    /**
+     * Freeze the defaults into a read-optimized snapshot. Defaults may still be
+     * changed afterwards, each change is applied to the snapshot as well.
+     *
+     * <p>A LazyValue is resolved the first time it is read, rather than now,
+     * since creating it may depend on the look and feel being installed. The
+     * created value then replaces it in the snapshot. ActiveValues still create
+     * a new value on each lookup, as UIDefaults does.</p>
+     */
+    public void freeze() {
+        synchronized (delegate) {
+            // Hashtable's entry set holds the raw, unresolved values.
+            snapshot = new ConcurrentHashMap<Object, Object>(delegate);
+            misses.clear();
+        }
+    }
+
+    /**
+     * @return whether the defaults have been frozen into a snapshot.
+     */
+    public boolean isFrozen() {
+        return snapshot != null;
+    }
+
+    /**
+     * Resolve a LazyValue found in the snapshot and replace it with the value
+     * it created, unless the key has been changed in the meantime.
+     *
+     * @param map  the snapshot the LazyValue was found in.
+     * @param key  the key.
+     * @param lazy the LazyValue.
+     * @return the created value.
+     */
+    private Object resolveLazyValue(ConcurrentMap<Object, Object> map, Object key, Object lazy) {
+        // The delegate resolves it once and keeps the value, whichever thread
+        // asks first.
+        Object value = delegate.get(key);
+
+        if (value == null) {
+            map.remove(key, lazy);
+        } else {
+            map.replace(key, lazy, value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Look up a key which is not in the snapshot, remembering the result.
+     *
+     * @param map the snapshot.
+     * @param key the key.
+     * @return the value from the delegate's resource bundles, or null.
+     */
+    private Object getMissing(ConcurrentMap<Object, Object> map, Object key) {
+        Object value = misses.get(key);
+
+        if (value == null) {
+            synchronized (delegate) {
+                value = delegate.get(key);
+
+                // Don't remember anything once the defaults have changed.
+                if (snapshot == map) {
+                    if (misses.size() >= MAX_MISSES) {
+                        misses.clear();
+                    }
+
+                    misses.put(key, value == null ? NO_VALUE : value);
+                }
+            }
+        }
+
+        return value == NO_VALUE ? null : value;
+    }
+
+    /**
+     * Drop the snapshot before changing the delegate, so that property change
+     * listeners reading the defaults see the new values. Must be called while
+     * holding the delegate's lock.
+     *
+     * @return the snapshot that was dropped, or null if there was none.
+     */
+    private ConcurrentMap<Object, Object> thaw() {
+        ConcurrentMap<Object, Object> map = snapshot;
+
+        snapshot = null;
+        misses.clear();
+
+        return map;
+    }
+
+    /**
+     * Restore the snapshot after the delegate has been changed, applying the
+     * change to it. Must be called while holding the delegate's lock.
+     *
+     * @param map   the snapshot returned by thaw().
+     * @param key   the key that changed, or null if any may have changed.
+     * @param value the new raw value of the key, or null if it was removed.
+     */
+    private void update(ConcurrentMap<Object, Object> map, Object key, Object value) {
+        if (map == null) {
+            return;
+        } else if (key == null) {
+            freeze();
+
+            return;
+        }
+
+        if (value == null) {
+            map.remove(key);
+        } else {
+            map.put(key, value);
+        }
+
+        snapshot = map;
+    }
+
+    /**
+     * Define sections of the defaults right away, in order. With the
+     * SeaGlass.Defaults.timing system property set to true, how long each of
+     * them took is printed.
+     *
+     * @param sections the sections to define.
+     */
+    public void defineNow(Section... sections) {
+        boolean       timed  = Boolean.getBoolean(TIMING_KEY);
+        StringBuilder report = new StringBuilder();
+
+        definingSection.set(Boolean.TRUE);
+
+        try {
+            for (Section section : sections) {
+                long start = System.nanoTime();
+
+                section.define(this);
+
+                if (timed) {
+                    long nanos = System.nanoTime() - start;
+
+                    report.append("  ").append(section.getName()).append(": ").append((nanos / 100000) / 10.0).append(" ms\n");
+                }
+            }
+        } finally {
+            definingSection.remove();
+        }
+
+        if (timed) {
+            System.err.print("SeaGlass defaults timing:\n" + report);
+        }
+    }
+
+    /**
+     * Define sections of the defaults on the first lookup of a key of one of
+     * their component families, see {@link #getFamily(String)}. A lookup of a
+     * key which belongs to no family, such as a palette color, defines the
+     * pending sections in order until one of them defines it. Enumerating the
+     * defaults defines every pending section. Changing a key which
+     * is not defined yet defines the section it may belong to first, so that
+     * the change is not overwritten.
+     *
+     * <p>A section is defined on the thread which first needs it, while
+     * holding the delegate's lock, so other threads looking up its keys wait
+     * until it is complete. It must only read keys defined by the sections
+     * defined right away, and must define no key another section defines.
+     * With the SeaGlass.Defaults.timing system property set to true, how long
+     * each of them took is printed, along with the key which needed it.</p>
+     *
+     * @param sections the sections to define.
+     */
+    public void defineLater(Section... sections) {
+        synchronized (delegate) {
+            for (Section section : sections) {
+                if (section.getFamilies().length == 0) {
+                    throw new IllegalArgumentException("Section " + section.getName() + " has no component families");
+                }
+
+                for (String family : section.getFamilies()) {
+                    pending.put(family, section);
+                }
+
+                this.sections.add(section);
+            }
+        }
+    }
+
+    /**
+     * Define the pending section of a style's component family, if there is
+     * one. Called before the style reads its defaults by enumerating them.
+     *
+     * @param prefix the prefix of the style, such as "Button" or
+     *               "ComboBox:\"ComboBox.arrowButton\"".
+     */
+    public void defineFamily(String prefix) {
+        if (prefix != null && !isDefiningSection()) {
+            defineSection(getFamily(prefix), prefix);
+        }
+    }
+
+    /**
+     * Returns whether the current thread is defining a section, or enumerating
+     * the sections defined so far.
+     *
+     * @return whether pending sections are left alone on this thread.
+     */
+    public static boolean isDefiningSection() {
+        return definingSection.get() != null;
+    }
+
+    /**
+     * Run a task which enumerates the defaults without defining the pending
+     * sections, so that it only sees the sections defined so far.
+     *
+     * @param task the task.
+     */
+    public static void enumerateDefined(Runnable task) {
+        if (isDefiningSection()) {
+            task.run();
+
+            return;
+        }
+
+        definingSection.set(Boolean.TRUE);
+
+        try {
+            task.run();
+        } finally {
+            definingSection.remove();
+        }
+    }
+
+    /**
+     * Look a key up in the UIManager without defining the pending sections,
+     * for a key which no section defines.
+     *
+     * @param key the key.
+     * @return the value, or null.
+     */
+    public static Object getDefined(Object key) {
+        if (isDefiningSection()) {
+            return UIManager.get(key);
+        }
+
+        definingSection.set(Boolean.TRUE);
+
+        try {
+            return UIManager.get(key);
+        } finally {
+            definingSection.remove();
+        }
+    }
+
+    /**
+     * Returns the component family of a key or style prefix: its first part,
+     * up to the first dot, bracket or colon, without quotes. "Button" for
+     * "Button[Enabled].backgroundPainter", "ComboBox" for
+     * "\"ComboBox.scrollPane\".contentMargins".
+     *
+     * @param key the key.
+     * @return its family, or the key itself if it has no parts.
+     */
+    static String getFamily(String key) {
+        int start = key.startsWith("\"") ? 1 : 0;
+        int end   = start;
+
+        while (end < key.length() && ".[:\"".indexOf(key.charAt(end)) < 0) {
+            end++;
+        }
+
+        return key.substring(start, end);
+    }
+
+    /**
+     * Define the pending sections which might define a key which was not
+     * found.
+     *
+     * @param key the key.
+     * @return whether the key should be looked up again.
+     */
+    private boolean definePending(Object key) {
+        if ((pending.isEmpty() && defining == 0) || !(key instanceof String) || "ClassLoader".equals(key) || isDefiningSection()) {
+            return false;
+        }
+
+        String family = getFamily((String) key);
+
+        if (family.length() == ((String) key).length()) {
+            // Keys such as palette colors may be defined by any section.
+            defineAll(key);
+
+            return delegate.containsKey(key);
+        }
+
+        return defineSection(family, key);
+    }
+
+    /**
+     * Define the pending section of a component family, or wait for it if it
+     * is being defined.
+     *
+     * @param family the family.
+     * @param key    the key it is needed for.
+     * @return whether the section was defined, by this thread or another.
+     */
+    private boolean defineSection(String family, Object key) {
+        if (!pending.containsKey(family) && defining == 0) {
+            return false;
+        }
+
+        synchronized (delegate) {
+            Section section = pending.get(family);
+
+            if (section != null) {
+                define(section, key);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Define the pending sections in order, or wait for those being defined.
+     *
+     * @param key the key they are needed for, in which case they are defined
+     *            until one of them defines it, or null to define them all so
+     *            that the defaults can be enumerated.
+     */
+    private void defineAll(Object key) {
+        if ((pending.isEmpty() && defining == 0) || isDefiningSection()) {
+            return;
+        }
+
+        synchronized (delegate) {
+            for (Section section : sections) {
+                if (key != null && delegate.containsKey(key)) {
+                    break;
+                }
+
+                define(section, key);
+            }
+        }
+    }
+
+    /**
+     * Define a pending section. Must be called while holding the delegate's
+     * lock.
+     *
+     * @param section the section.
+     * @param key     the key it is needed for, or null.
+     */
+    private void define(Section section, Object key) {
+        // Another thread may have defined it while this one waited.
+        if (!pending.remove(section.getFamilies()[0], section)) {
+            return;
+        }
+
+        for (String family : section.getFamilies()) {
+            pending.remove(family, section);
+        }
+
+        long start = System.nanoTime();
+
+        defining++;
+        definingSection.set(Boolean.TRUE);
+
+        try {
+            section.define(this);
+        } finally {
+            definingSection.remove();
+            defining--;
+        }
+
+        if (Boolean.getBoolean(TIMING_KEY)) {
+            long nanos = System.nanoTime() - start;
+
+            System.err.println("SeaGlass defaults timing: " + section.getName() + ": " + (nanos / 100000) / 10.0 + " ms, "
+                               + (key == null ? "to enumerate the defaults" : "on first lookup of " + key));
+        }
+    }
+
     /**
      * @param key
      * @return
      * @see javax.swing.UIDefaults#get(java.lang.Object)
      */
     public Object get(Object key) {
+        Object value = lookup(key);
+
+        // It might be defined by a section not defined yet.
+        if (value == null && definePending(key)) {
+            value = lookup(key);
+        }
+
+        return value;
+    }
+
+    /**
+     * Look up a key in the snapshot, or in the delegate if there is none.
+     *
+     * @param key the key.
+     * @return the value, or null.
+     */
+    private Object lookup(Object key) {
+        ConcurrentMap<Object, Object> map = snapshot;
+
+        if (map != null) {
+            Object value = map.get(key);
+
+            if (value instanceof LazyValue) {
+                value = resolveLazyValue(map, key, value);
+            }
+
+            if (value instanceof ActiveValue) {
+                return ((ActiveValue) value).createValue(this);
+            } else if (value != null) {
+                return value;
+            }
+
+            // Not in the table, but it might be in a resource bundle.
+            return getMissing(map, key);
+        }
+
         Object object = delegate.get(key);
+
 //        if (object == null) {
 //            missingDefaults.add(key);
 //        }
@@ -44,7 +519,13 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#get(java.lang.Object, java.util.Locale)
      */
     public Object get(Object key, Locale l) {
-        return delegate.get(key, l);
+        Object value = delegate.get(key, l);
+
+        if (value == null && definePending(key)) {
+            value = delegate.get(key, l);
+        }
+
+        return value;
     }
 
     /**
@@ -52,6 +533,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#size()
      */
     public int size() {
+        defineAll(null);
+
         return delegate.size();
     }
 
@@ -60,6 +543,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#isEmpty()
      */
     public boolean isEmpty() {
+        defineAll(null);
+
         return delegate.isEmpty();
     }
 
@@ -68,6 +553,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#keys()
      */
     public Enumeration<Object> keys() {
+        defineAll(null);
+
         return delegate.keys();
     }
 
@@ -76,6 +563,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#elements()
      */
     public Enumeration<Object> elements() {
+        defineAll(null);
+
         return delegate.elements();
     }
 
@@ -85,6 +574,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#contains(java.lang.Object)
      */
     public boolean contains(Object value) {
+        defineAll(null);
+
         return delegate.contains(value);
     }
 
@@ -94,6 +585,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#containsValue(java.lang.Object)
      */
     public boolean containsValue(Object value) {
+        defineAll(null);
+
         return delegate.containsValue(value);
     }
 
@@ -104,7 +597,20 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#put(java.lang.Object, java.lang.Object)
      */
     public Object put(Object key, Object value) {
-        return delegate.put(key, value);
+        // Define the section it may belong to first, which would otherwise
+        // overwrite the change.
+        if (!delegate.containsKey(key)) {
+            definePending(key);
+        }
+
+        synchronized (delegate) {
+            ConcurrentMap<Object, Object> map = thaw();
+            Object                        old = delegate.put(key, value);
+
+            update(map, key, value);
+
+            return old;
+        }
     }
 
     /**
@@ -113,7 +619,7 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#containsKey(java.lang.Object)
      */
     public boolean containsKey(Object key) {
-        return delegate.containsKey(key);
+        return delegate.containsKey(key) || (definePending(key) && delegate.containsKey(key));
     }
 
     /**
@@ -121,7 +627,14 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#putDefaults(java.lang.Object[])
      */
     public void putDefaults(Object[] keyValueList) {
-        delegate.putDefaults(keyValueList);
+        defineAll(null);
+
+        synchronized (delegate) {
+            ConcurrentMap<Object, Object> map = thaw();
+
+            delegate.putDefaults(keyValueList);
+            update(map, null, null);
+        }
     }
 
     /**
@@ -130,7 +643,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getFont(java.lang.Object)
      */
     public Font getFont(Object key) {
-        return delegate.getFont(key);
+        Object value = get(key);
+
+        return (value instanceof Font) ? (Font) value : null;
     }
 
     /**
@@ -140,7 +655,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getFont(java.lang.Object, java.util.Locale)
      */
     public Font getFont(Object key, Locale l) {
-        return delegate.getFont(key, l);
+        Object value = get(key, l);
+
+        return (value instanceof Font) ? (Font) value : null;
     }
 
     /**
@@ -149,7 +666,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getColor(java.lang.Object)
      */
     public Color getColor(Object key) {
-        return delegate.getColor(key);
+        Object value = get(key);
+
+        return (value instanceof Color) ? (Color) value : null;
     }
 
     /**
@@ -159,7 +678,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getColor(java.lang.Object, java.util.Locale)
      */
     public Color getColor(Object key, Locale l) {
-        return delegate.getColor(key, l);
+        Object value = get(key, l);
+
+        return (value instanceof Color) ? (Color) value : null;
     }
 
     /**
@@ -168,7 +689,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getIcon(java.lang.Object)
      */
     public Icon getIcon(Object key) {
-        return delegate.getIcon(key);
+        Object value = get(key);
+
+        return (value instanceof Icon) ? (Icon) value : null;
     }
 
     /**
@@ -178,7 +701,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getIcon(java.lang.Object, java.util.Locale)
      */
     public Icon getIcon(Object key, Locale l) {
-        return delegate.getIcon(key, l);
+        Object value = get(key, l);
+
+        return (value instanceof Icon) ? (Icon) value : null;
     }
 
     /**
@@ -187,7 +712,18 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#remove(java.lang.Object)
      */
     public Object remove(Object key) {
-        return delegate.remove(key);
+        if (!delegate.containsKey(key)) {
+            definePending(key);
+        }
+
+        synchronized (delegate) {
+            ConcurrentMap<Object, Object> map = thaw();
+            Object                        old = delegate.remove(key);
+
+            update(map, key, null);
+
+            return old;
+        }
     }
 
     /**
@@ -196,7 +732,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getBorder(java.lang.Object)
      */
     public Border getBorder(Object key) {
-        return delegate.getBorder(key);
+        Object value = get(key);
+
+        return (value instanceof Border) ? (Border) value : null;
     }
 
     /**
@@ -204,7 +742,14 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#putAll(java.util.Map)
      */
     public void putAll(Map<? extends Object, ? extends Object> t) {
-        delegate.putAll(t);
+        defineAll(null);
+
+        synchronized (delegate) {
+            ConcurrentMap<Object, Object> map = thaw();
+
+            delegate.putAll(t);
+            update(map, null, null);
+        }
     }
 
     /**
@@ -214,7 +759,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getBorder(java.lang.Object, java.util.Locale)
      */
     public Border getBorder(Object key, Locale l) {
-        return delegate.getBorder(key, l);
+        Object value = get(key, l);
+
+        return (value instanceof Border) ? (Border) value : null;
     }
 
     /**
@@ -222,7 +769,13 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#clear()
      */
     public void clear() {
-        delegate.clear();
+        synchronized (delegate) {
+            ConcurrentMap<Object, Object> map = thaw();
+
+            pending.clear();
+            delegate.clear();
+            update(map, null, null);
+        }
     }
 
     /**
@@ -231,7 +784,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getString(java.lang.Object)
      */
     public String getString(Object key) {
-        return delegate.getString(key);
+        Object value = get(key);
+
+        return (value instanceof String) ? (String) value : null;
     }
 
     /**
@@ -239,6 +794,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#clone()
      */
     public Object clone() {
+        defineAll(null);
+
         return delegate.clone();
     }
 
@@ -249,7 +806,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getString(java.lang.Object, java.util.Locale)
      */
     public String getString(Object key, Locale l) {
-        return delegate.getString(key, l);
+        Object value = get(key, l);
+
+        return (value instanceof String) ? (String) value : null;
     }
 
     /**
@@ -266,7 +825,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getInt(java.lang.Object)
      */
     public int getInt(Object key) {
-        return delegate.getInt(key);
+        Object value = get(key);
+
+        return (value instanceof Integer) ? ((Integer) value).intValue() : 0;
     }
 
     /**
@@ -276,7 +837,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getInt(java.lang.Object, java.util.Locale)
      */
     public int getInt(Object key, Locale l) {
-        return delegate.getInt(key, l);
+        Object value = get(key, l);
+
+        return (value instanceof Integer) ? ((Integer) value).intValue() : 0;
     }
 
     /**
@@ -285,7 +848,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getBoolean(java.lang.Object)
      */
     public boolean getBoolean(Object key) {
-        return delegate.getBoolean(key);
+        Object value = get(key);
+
+        return (value instanceof Boolean) ? ((Boolean) value).booleanValue() : false;
     }
 
     /**
@@ -295,7 +860,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getBoolean(java.lang.Object, java.util.Locale)
      */
     public boolean getBoolean(Object key, Locale l) {
-        return delegate.getBoolean(key, l);
+        Object value = get(key, l);
+
+        return (value instanceof Boolean) ? ((Boolean) value).booleanValue() : false;
     }
 
     /**
@@ -303,6 +870,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#keySet()
      */
     public Set<Object> keySet() {
+        defineAll(null);
+
         return delegate.keySet();
     }
 
@@ -312,7 +881,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getInsets(java.lang.Object)
      */
     public Insets getInsets(Object key) {
-        return delegate.getInsets(key);
+        Object value = get(key);
+
+        return (value instanceof Insets) ? (Insets) value : null;
     }
 
     /**
@@ -322,7 +893,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getInsets(java.lang.Object, java.util.Locale)
      */
     public Insets getInsets(Object key, Locale l) {
-        return delegate.getInsets(key, l);
+        Object value = get(key, l);
+
+        return (value instanceof Insets) ? (Insets) value : null;
     }
 
     /**
@@ -330,6 +903,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#entrySet()
      */
     public Set<java.util.Map.Entry<Object, Object>> entrySet() {
+        defineAll(null);
+
         return delegate.entrySet();
     }
 
@@ -339,7 +914,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getDimension(java.lang.Object)
      */
     public Dimension getDimension(Object key) {
-        return delegate.getDimension(key);
+        Object value = get(key);
+
+        return (value instanceof Dimension) ? (Dimension) value : null;
     }
 
     /**
@@ -349,7 +926,9 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#getDimension(java.lang.Object, java.util.Locale)
      */
     public Dimension getDimension(Object key, Locale l) {
-        return delegate.getDimension(key, l);
+        Object value = get(key, l);
+
+        return (value instanceof Dimension) ? (Dimension) value : null;
     }
 
     /**
@@ -367,6 +946,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#values()
      */
     public Collection<Object> values() {
+        defineAll(null);
+
         return delegate.values();
     }
 
@@ -385,6 +966,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#equals(java.lang.Object)
      */
     public boolean equals(Object o) {
+        defineAll(null);
+
         return delegate.equals(o);
     }
 
@@ -402,6 +985,8 @@ public class UIWrapper extends UIDefaults {
      * @see java.util.Hashtable#hashCode()
      */
     public int hashCode() {
+        defineAll(null);
+
         return delegate.hashCode();
     }
 
@@ -434,7 +1019,10 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#addResourceBundle(java.lang.String)
      */
     public void addResourceBundle(String bundleName) {
-        delegate.addResourceBundle(bundleName);
+        synchronized (delegate) {
+            delegate.addResourceBundle(bundleName);
+            misses.clear();
+        }
     }
 
     /**
@@ -442,7 +1030,10 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#removeResourceBundle(java.lang.String)
      */
     public void removeResourceBundle(String bundleName) {
-        delegate.removeResourceBundle(bundleName);
+        synchronized (delegate) {
+            delegate.removeResourceBundle(bundleName);
+            misses.clear();
+        }
     }
 
     /**
@@ -450,7 +1041,10 @@ public class UIWrapper extends UIDefaults {
      * @see javax.swing.UIDefaults#setDefaultLocale(java.util.Locale)
      */
     public void setDefaultLocale(Locale l) {
-        delegate.setDefaultLocale(l);
+        synchronized (delegate) {
+            delegate.setDefaultLocale(l);
+            misses.clear();
+        }
     }
 
     /**
@@ -469,5 +1063,44 @@ public class UIWrapper extends UIDefaults {
         this.delegate = delegate;
         put("missing.keys", this.missingDefaults);
     }
- 
+
+    /**
+     * A part of the defaults, such as those of one component family, which is
+     * defined and timed as a unit.
+     */
+    public abstract static class Section {
+        private final String   name;
+        private final String[] families;
+
+        /**
+         * @param name     the name of the section, used in the timing report.
+         * @param families the component families whose keys the section
+         *                 defines, needed for it to be defined later.
+         */
+        protected Section(String name, String... families) {
+            this.name     = name;
+            this.families = families;
+        }
+
+        /**
+         * @return the name of the section.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the component families whose keys the section defines.
+         */
+        public String[] getFamilies() {
+            return families;
+        }
+
+        /**
+         * Define the defaults of this section.
+         *
+         * @param d the table to put them into.
+         */
+        protected abstract void define(UIDefaults d);
+    }
 }
@@ -50,6 +50,10 @@ public class SeaGlassIcon extends SynthIcon {
     private String prefix;
     private String key;
 
+    /** The keys of the enabled and the default painter, built once. */
+    private String enabledKey;
+    private String defaultKey;
+
     /**
      * Creates a new SeaGlassIcon object.
      *
@@ -63,6 +67,9 @@ public class SeaGlassIcon extends SynthIcon {
         this.height = h;
         this.prefix = prefix;
         this.key    = key;
+
+        enabledKey = prefix + "[Enabled]." + key;
+        defaultKey = prefix + "." + key;
     }
 
     /**
@@ -85,11 +92,11 @@ public class SeaGlassIcon extends SynthIcon {
         }
 
         if (painter == null) {
-            painter = (SeaGlassPainter) UIManager.get(prefix + "[Enabled]." + key);
+            painter = (SeaGlassPainter) UIManager.get(enabledKey);
         }
 
         if (painter == null) {
-            painter = (SeaGlassPainter) UIManager.get(prefix + "." + key);
+            painter = (SeaGlassPainter) UIManager.get(defaultKey);
         }
 
         if (painter != null && context != null) {
@@ -186,7 +193,7 @@ public class SeaGlassIcon extends SynthIcon {
     @SuppressWarnings("unchecked")
     @Override
     public void paintIcon(Component c, Graphics g, int x, int y) {
-        SeaGlassPainter painter = (SeaGlassPainter) UIManager.get(prefix + "[Enabled]." + key);
+        SeaGlassPainter painter = (SeaGlassPainter) UIManager.get(enabledKey);
 
         if (painter != null) {
             JComponent jc  = (c instanceof JComponent) ? (JComponent) c : null;
@@ -25,7 +25,6 @@ import java.awt.Container;
 import java.awt.Dimension;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
-import java.awt.Image;
 import java.awt.Insets;
 import java.awt.LayoutManager;
 import java.awt.Toolkit;
@@ -63,6 +62,7 @@ import sun.swing.SwingUtilities2;
 import com.seaglasslookandfeel.SeaGlassContext;
 import com.seaglasslookandfeel.SeaGlassLookAndFeel;
 import com.seaglasslookandfeel.ui.SeaglassUI;
+import com.seaglasslookandfeel.util.IconScaler;
 
 /**
  * Manage a title bar for an internal frame.
@@ -627,7 +627,7 @@ public class SeaGlassInternalFrameTitlePane extends JComponent implements Seagla
             }
 
             if ((frameIcon.getIconWidth() > maxWidth || frameIcon.getIconHeight() > maxHeight) && (frameIcon instanceof ImageIcon)) {
-                frameIcon = new ImageIcon(((ImageIcon) frameIcon).getImage().getScaledInstance(maxWidth, maxHeight, Image.SCALE_SMOOTH));
+                frameIcon = IconScaler.getScaledIcon((ImageIcon) frameIcon, maxWidth, maxHeight);
             }
         }
 
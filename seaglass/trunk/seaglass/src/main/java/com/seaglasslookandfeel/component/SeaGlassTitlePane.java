@@ -73,6 +73,7 @@ import com.seaglasslookandfeel.painter.FrameAndRootPainter;
 import com.seaglasslookandfeel.ui.SeaGlassButtonUI;
 import com.seaglasslookandfeel.ui.SeaGlassRootPaneUI;
 import com.seaglasslookandfeel.ui.SeaglassUI;
+import com.seaglasslookandfeel.util.IconScaler;
 import com.seaglasslookandfeel.util.SeaGlassGraphicsUtils;
 
 /**
@@ -451,7 +452,7 @@ public class SeaGlassTitlePane extends JComponent implements SeaglassUI, Propert
                 maxWidth  = maxSize.width;
                 maxHeight = maxSize.height;
             }
-            menuButton.setIcon(new ImageIcon(frameIcon.getScaledInstance(maxWidth, maxHeight, Image.SCALE_SMOOTH)));
+            menuButton.setIcon(new ImageIcon(IconScaler.getScaledImage(frameIcon, maxWidth, maxHeight)));
         }
 
         context.dispose();
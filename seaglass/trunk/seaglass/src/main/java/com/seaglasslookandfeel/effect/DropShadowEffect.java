@@ -69,7 +69,7 @@ public class DropShadowEffect extends ShadowEffect {
      * @return Image with the result of the effect
      */
     @Override
-    public BufferedImage applyEffect(BufferedImage src, BufferedImage dst, int w, int h) {
+    public BufferedImage applyEffect(BufferedImage src, BufferedImage dst, final int w, int h) {
         if (src == null || (src.getType() != BufferedImage.TYPE_INT_ARGB && src.getType() != BufferedImage.TYPE_INT_ARGB_PRE)) {
             throw new IllegalArgumentException("Effect only works with source images of type BufferedImage.TYPE_INT_ARGB. Type is "
                                                + src.getType());
@@ -80,78 +80,93 @@ public class DropShadowEffect extends ShadowEffect {
         }
 
         // calculate offset
-        double trangleAngle = Math.toRadians(angle - 90);
-        int    offsetX      = (int) (Math.sin(trangleAngle) * distance + 0.5);
-        int    offsetY      = (int) (Math.cos(trangleAngle) * distance + 0.5);
+        double    trangleAngle = Math.toRadians(angle - 90);
+        final int offsetX      = (int) (Math.sin(trangleAngle) * distance + 0.5);
+        final int offsetY      = (int) (Math.cos(trangleAngle) * distance + 0.5);
 
         // calculate expanded size
-        int tmpOffX = offsetX + size;
-        int tmpOffY = offsetX + size;
-        int tmpW    = w + offsetX + size + size;
-        int tmpH    = h + offsetX + size;
+        final int tmpOffX = offsetX + size;
+        final int tmpOffY = offsetX + size;
+        final int tmpW    = w + offsetX + size + size;
+        final int tmpH    = h + offsetX + size;
 
         // create tmp buffers
-        int[]  lineBuf = getArrayCache().getTmpIntArray(w);
-        byte[] tmpBuf1 = getArrayCache().getTmpByteArray1(tmpW * tmpH);
+        final byte[] tmpBuf1 = getArrayCache().getTmpByteArray1(tmpW * tmpH);
 
         Arrays.fill(tmpBuf1, (byte) 0x00);
         byte[] tmpBuf2 = getArrayCache().getTmpByteArray2(tmpW * tmpH);
 
         // extract src image alpha channel and inverse and offset
-        Raster srcRaster = src.getRaster();
+        final Raster srcRaster = src.getRaster();
 
-        for (int y = 0; y < h; y++) {
-            int dy     = (y + tmpOffY);
-            int offset = dy * tmpW;
+        processRows(w, h, new RowProcessor() {
+                public void processRows(int from, int to) {
+                    int[] lineBuf = getArrayCache().getTmpIntArray(w);
 
-            srcRaster.getDataElements(0, y, w, 1, lineBuf);
+                    for (int y = from; y < to; y++) {
+                        int dy     = (y + tmpOffY);
+                        int offset = dy * tmpW;
 
-            for (int x = 0; x < w; x++) {
-                int dx = x + tmpOffX;
+                        srcRaster.getDataElements(0, y, w, 1, lineBuf);
 
-                tmpBuf1[offset + dx] = (byte) ((lineBuf[x] & 0xFF000000) >>> 24);
-            }
-        }
-
-        // blur
-        float[] kernel = EffectUtils.createGaussianKernel(size);
+                        for (int x = 0; x < w; x++) {
+                            int dx = x + tmpOffX;
 
-        EffectUtils.blur(tmpBuf1, tmpBuf2, tmpW, tmpH, kernel, size); // horizontal
+                            tmpBuf1[offset + dx] = (byte) ((lineBuf[x] & 0xFF000000) >>> 24);
+                        }
+                    }
+                }
+            });
 
-        // pass
-        EffectUtils.blur(tmpBuf2, tmpBuf1, tmpH, tmpW, kernel, size); // vertical
+        // blur
+        if (blurType == BlurType.BOX) {
+            EffectUtils.boxBlur(tmpBuf1, tmpBuf2, tmpW, tmpH, size); // horizontal pass
+            EffectUtils.boxBlur(tmpBuf2, tmpBuf1, tmpH, tmpW, size); // vertical pass
+        } else {
+            float[] kernel = EffectUtils.getGaussianKernel(size);
+
+            EffectUtils.blur(tmpBuf1, tmpBuf2, tmpW, tmpH, kernel, size); // horizontal pass
+            EffectUtils.blur(tmpBuf2, tmpBuf1, tmpH, tmpW, kernel, size); // vertical pass
+        }
 
-        // pass
         // rescale
-        float spread = Math.min(1 / (1 - (0.01f * this.spread)), 255);
+        final float spread = Math.min(1 / (1 - (0.01f * this.spread)), 255);
 
-        for (int i = 0; i < tmpBuf1.length; i++) {
-            int val = (int) (((int) tmpBuf1[i] & 0xFF) * spread);
+        processRows(tmpW, tmpH, new RowProcessor() {
+                public void processRows(int from, int to) {
+                    for (int i = from * tmpW, end = to * tmpW; i < end; i++) {
+                        int val = (int) (((int) tmpBuf1[i] & 0xFF) * spread);
 
-            tmpBuf1[i] = (val > 255) ? (byte) 0xFF : (byte) val;
-        }
+                        tmpBuf1[i] = (val > 255) ? (byte) 0xFF : (byte) val;
+                    }
+                }
+            });
 
         // create color image with shadow color and greyscale image as alpha
         if (dst == null)
             dst = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
 
-        WritableRaster shadowRaster = dst.getRaster();
-        int            red          = color.getRed();
-        int            green        = color.getGreen();
-        int            blue         = color.getBlue();
+        final WritableRaster shadowRaster = dst.getRaster();
+        final int            rgb          = color.getRGB() & 0xFFFFFF;
 
-        for (int y = 0; y < h; y++) {
-            int srcY         = y + tmpOffY;
-            int shadowOffset = (srcY - offsetY) * tmpW;
+        processRows(w, h, new RowProcessor() {
+                public void processRows(int from, int to) {
+                    int[] lineBuf = getArrayCache().getTmpIntArray(w);
 
-            for (int x = 0; x < w; x++) {
-                int srcX = x + tmpOffX;
+                    for (int y = from; y < to; y++) {
+                        int srcY         = y + tmpOffY;
+                        int shadowOffset = (srcY - offsetY) * tmpW;
 
-                lineBuf[x] = tmpBuf1[shadowOffset + (srcX - offsetX)] << 24 | red << 16 | green << 8 | blue;
-            }
+                        for (int x = 0; x < w; x++) {
+                            int srcX = x + tmpOffX;
 
-            shadowRaster.setDataElements(0, y, w, 1, lineBuf);
-        }
+                            lineBuf[x] = tmpBuf1[shadowOffset + (srcX - offsetX)] << 24 | rgb;
+                        }
+
+                        shadowRaster.setDataElements(0, y, w, 1, lineBuf);
+                    }
+                }
+            });
 
         return dst;
     }
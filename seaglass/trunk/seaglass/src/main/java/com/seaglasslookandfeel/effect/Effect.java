@@ -30,15 +30,25 @@ import java.awt.Image;
 import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.Transparency;
+import java.awt.geom.PathIterator;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.PixelGrabber;
 
 import java.lang.ref.SoftReference;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
 import javax.swing.ImageIcon;
 
-import sun.awt.AppContext;
+import com.seaglasslookandfeel.util.ImageCache;
 
 /**
  * Effect
@@ -47,6 +57,33 @@ import sun.awt.AppContext;
  */
 public abstract class Effect {
 
+    /**
+     * System property giving the number of pixels above which effects are
+     * processed on several threads. A negative value disables parallel
+     * processing.
+     */
+    public static final String PARALLEL_THRESHOLD_KEY = "SeaGlass.Effect.parallelThreshold";
+
+    /** The default parallel threshold, a 256x256 surface. */
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 256 * 256;
+
+    /** The number of pixels above which effects are processed in parallel. */
+    private static volatile int parallelThreshold = Integer.getInteger(PARALLEL_THRESHOLD_KEY, DEFAULT_PARALLEL_THRESHOLD);
+
+    /** The shared worker threads, created when first needed. */
+    private static ExecutorService workers;
+
+    /** The number of worker threads, not counting the calling thread. */
+    private static final int WORKER_COUNT = Runtime.getRuntime().availableProcessors() - 1;
+
+    /** Scratch arrays, one set for each thread applying effects. */
+    private static final ThreadLocal<ArrayCache> arrayCache = new ThreadLocal<ArrayCache>() {
+        @Override
+        protected ArrayCache initialValue() {
+            return new ArrayCache();
+        }
+    };
+
     /**
      * The type of effect.
      */
@@ -54,6 +91,25 @@ public abstract class Effect {
         UNDER, BLENDED, OVER
     }
 
+    /**
+     * The algorithm used to blur an effect.
+     */
+    public enum BlurType {
+
+        /**
+         * Convolve with a Gaussian kernel. The cost per pixel grows with the
+         * size of the effect. This is the default.
+         */
+        GAUSSIAN,
+
+        /**
+         * Approximate the Gaussian with three running-sum box blurs. The cost
+         * per pixel is the same whatever the size of the effect, but below a
+         * size of 4 the result is visibly squarer than the Gaussian.
+         */
+        BOX
+    }
+
     // =================================================================================================================
     // Abstract Methods
 
@@ -98,6 +154,10 @@ public abstract class Effect {
     /**
      * Paint the effect based around a solid shape in the graphics supplied.
      *
+     * <p>The result depends only on the shape's outline and the effect's
+     * parameters, so if the effect supplies a cache key the result is kept in
+     * the {@link ImageCache} and identical effects are only computed once.</p>
+     *
      * @param g the graphics to paint into.
      * @param s the shape to base the effect around.
      */
@@ -106,30 +166,175 @@ public abstract class Effect {
         int       width  = bounds.width;
         int       height = bounds.height;
 
-        BufferedImage bimage = Effect.createBufferedImage(width, height, true);
-        Graphics2D    gbi    = bimage.createGraphics();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        ImageCache    cache     = ImageCache.getInstance();
+        Object        effectKey = getEffectKey();
+        Object        shapeKey  = null;
+        BufferedImage result    = null;
+
+        if (effectKey != null && cache.isImageCachable(width, height)) {
+            shapeKey = new OutlineKey(s);
+            result   = (BufferedImage) cache.getImage(null, width, height, effectKey, shapeKey);
+        }
+
+        if (result == null) {
+            BufferedImage bimage = Effect.createBufferedImage(width, height, true);
+            Graphics2D    gbi    = bimage.createGraphics();
+
+            gbi.setColor(Color.BLACK);
+            gbi.fill(s);
+            gbi.dispose();
+
+            result = applyEffect(bimage, null, width, height);
 
-        gbi.setColor(Color.BLACK);
-        gbi.fill(s);
+            if (shapeKey != null) {
+                cache.setImage(result, null, width, height, effectKey, shapeKey);
+            }
+        }
+
+        g.drawImage(result, 0, 0, null);
+    }
 
-        g.drawImage(applyEffect(bimage, null, width, height), 0, 0, null);
+    /**
+     * Get a key identifying everything, other than the source shape, which
+     * affects the result of this effect. Effects returning a key have their
+     * results cached by {@link #fill(Graphics2D, Shape)}. The key must
+     * implement {@code equals} and {@code hashCode}, or be an array of such
+     * objects.
+     *
+     * @return the key, or {@code null} if the results of this effect must not
+     *         be cached. This default implementation returns {@code null}.
+     */
+    protected Object getEffectKey() {
+        return null;
     }
 
     /**
      * =================================================================================================================
      * Static data cache
      *
-     * @return the array cache.
+     * <p>Each thread has its own cache, so worker threads processing part of
+     * an effect in parallel do not share scratch arrays.</p>
+     *
+     * @return the array cache for the current thread.
      */
     protected static ArrayCache getArrayCache() {
-        ArrayCache cache = (ArrayCache) AppContext.getAppContext().get(ArrayCache.class);
+        return arrayCache.get();
+    }
+
+    /**
+     * Get the number of pixels above which effects are processed on several
+     * threads.
+     *
+     * @return the threshold, or a negative number if parallel processing is
+     *         disabled.
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
 
-        if (cache == null) {
-            cache = new ArrayCache();
-            AppContext.getAppContext().put(ArrayCache.class, cache);
+    /**
+     * Set the number of pixels above which effects are processed on several
+     * threads. Parallel processing only happens on machines with more than one
+     * processor.
+     *
+     * @param threshold the new threshold, or a negative number to disable
+     *                  parallel processing.
+     */
+    public static void setParallelThreshold(int threshold) {
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * Process the rows of a surface, splitting them across the worker threads
+     * if the surface is larger than the parallel threshold. The calling thread
+     * processes one share of the rows itself, and this method returns when all
+     * the rows have been processed.
+     *
+     * @param width     the width of the surface, used with the height to
+     *                  decide whether to go parallel.
+     * @param height    the number of rows.
+     * @param processor the processor. Must be safe to call concurrently for
+     *                  distinct ranges of rows.
+     */
+    protected static void processRows(int width, int height, RowProcessor processor) {
+        int threshold = parallelThreshold;
+
+        if (WORKER_COUNT < 1 || threshold < 0 || (long) width * height <= threshold || height < 2) {
+            processor.processRows(0, height);
+            return;
         }
 
-        return cache;
+        int             chunks  = Math.min(WORKER_COUNT + 1, height);
+        List<Future<?>> futures = new ArrayList<Future<?>>(chunks - 1);
+        ExecutorService service = getWorkers();
+
+        for (int i = 1; i < chunks; i++) {
+            final int          from = height * i / chunks;
+            final int          to   = height * (i + 1) / chunks;
+            final RowProcessor p    = processor;
+
+            futures.add(service.submit(new Runnable() {
+                    public void run() {
+                        p.processRows(from, to);
+                    }
+                }));
+        }
+
+        processor.processRows(0, height / chunks);
+
+        boolean interrupted = false;
+
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // The rows must be finished before we return.
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+
+                    throw new IllegalStateException(cause);
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the worker threads, creating them if necessary.
+     *
+     * @return the executor service running the workers.
+     */
+    private static synchronized ExecutorService getWorkers() {
+        if (workers == null) {
+            workers = Executors.newFixedThreadPool(WORKER_COUNT, new ThreadFactory() {
+                    private int count = 0;
+
+                    public synchronized Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "SeaGlass Effect Worker " + (++count));
+
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        }
+
+        return workers;
     }
 
     /**
@@ -277,10 +482,27 @@ public abstract class Effect {
     }
 
     /**
-     * A static array cache with one int array and three byte arrays.
+     * Processes a range of rows of a surface. See
+     * {@link Effect#processRows(int, int, RowProcessor)}.
+     */
+    protected interface RowProcessor {
+
+        /**
+         * Process the rows from <code>from</code>, inclusive, to <code>
+         * to</code>, exclusive.
+         *
+         * @param from the first row to process.
+         * @param to   the row after the last row to process.
+         */
+        void processRows(int from, int to);
+    }
+
+    /**
+     * An array cache with two int arrays and three byte arrays.
      */
     protected static class ArrayCache {
         private SoftReference<int[]>  tmpIntArray   = null;
+        private SoftReference<int[]>  tmpIntArray2  = null;
         private SoftReference<byte[]> tmpByteArray1 = null;
         private SoftReference<byte[]> tmpByteArray2 = null;
         private SoftReference<byte[]> tmpByteArray3 = null;
@@ -305,6 +527,26 @@ public abstract class Effect {
             return tmp;
         }
 
+        /**
+         * Returns the second int array.
+         *
+         * @param  size the size required.
+         *
+         * @return the int array.
+         */
+        protected int[] getTmpIntArray2(int size) {
+            int[] tmp;
+
+            if (tmpIntArray2 == null || (tmp = tmpIntArray2.get()) == null || tmp.length < size) {
+
+                // create new array
+                tmp          = new int[size];
+                tmpIntArray2 = new SoftReference<int[]>(tmp);
+            }
+
+            return tmp;
+        }
+
         /**
          * Returns the first byte array.
          *
@@ -365,4 +607,92 @@ public abstract class Effect {
             return tmp;
         }
     }
+
+    /**
+     * The outline of a shape, captured so that it can be used as part of a
+     * cache key. Two keys are equal if the shapes have the same path segments
+     * at the same coordinates.
+     */
+    private static final class OutlineKey {
+        private final byte[]  types;
+        private final float[] coords;
+        private final int     hash;
+
+        /**
+         * Creates a new OutlineKey object.
+         *
+         * @param s the shape whose outline to capture.
+         */
+        OutlineKey(Shape s) {
+            byte[]  types     = new byte[16];
+            float[] coords    = new float[64];
+            float[] segment   = new float[6];
+            int     numTypes  = 0;
+            int     numCoords = 0;
+
+            for (PathIterator pi = s.getPathIterator(null); !pi.isDone(); pi.next()) {
+                int type = pi.currentSegment(segment);
+                int n;
+
+                switch (type) {
+
+                case PathIterator.SEG_MOVETO:
+                case PathIterator.SEG_LINETO:
+                    n = 2;
+                    break;
+
+                case PathIterator.SEG_QUADTO:
+                    n = 4;
+                    break;
+
+                case PathIterator.SEG_CUBICTO:
+                    n = 6;
+                    break;
+
+                default:
+                    n = 0;
+                }
+
+                if (numTypes == types.length) {
+                    types = Arrays.copyOf(types, numTypes * 2);
+                }
+
+                if (numCoords + n > coords.length) {
+                    coords = Arrays.copyOf(coords, (numCoords + n) * 2);
+                }
+
+                types[numTypes++] = (byte) type;
+                System.arraycopy(segment, 0, coords, numCoords, n);
+                numCoords += n;
+            }
+
+            this.types  = Arrays.copyOf(types, numTypes);
+            this.coords = Arrays.copyOf(coords, numCoords);
+            this.hash   = 31 * Arrays.hashCode(this.types) + Arrays.hashCode(this.coords);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof OutlineKey)) {
+                return false;
+            }
+
+            OutlineKey other = (OutlineKey) obj;
+
+            return hash == other.hash && Arrays.equals(types, other.types) && Arrays.equals(coords, other.coords);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
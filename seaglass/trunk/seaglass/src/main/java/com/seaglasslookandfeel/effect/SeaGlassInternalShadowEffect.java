@@ -21,7 +21,6 @@ package com.seaglasslookandfeel.effect;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.LinearGradientPaint;
 import java.awt.Paint;
 import java.awt.Rectangle;
 import java.awt.Shape;
@@ -30,6 +29,7 @@ import java.awt.geom.Rectangle2D;
 import javax.swing.UIManager;
 
 import com.seaglasslookandfeel.painter.AbstractRegionPainter.TwoColors;
+import com.seaglasslookandfeel.painter.util.GradientCache;
 import com.seaglasslookandfeel.painter.util.ShapeGenerator;
 
 /**
@@ -40,6 +40,8 @@ import com.seaglasslookandfeel.painter.util.ShapeGenerator;
  */
 public class SeaGlassInternalShadowEffect {
 
+    private static final float[] TWO_COLOR_FRACTIONS = { 0f, 1f };
+
     private Color transparentColor = UIManager.getColor("seaGlassTransparent");
     private Color innerShadowBase  = UIManager.getColor("seaGlassInnerShadow");
 
@@ -126,8 +128,8 @@ public class SeaGlassInternalShadowEffect {
         float     frac = 1.0f / r.height;
         int       y2   = r.y + r.height;
 
-        return new LinearGradientPaint(x, y1, x, y2, (new float[] { 0f, frac, 1f }),
-                                       new Color[] { innerShadow.top, innerShadow.bottom, innerShadow.bottom });
+        return GradientCache.getLinearGradient(x, y1, x, y2, (new float[] { 0f, frac, 1f }), innerShadow.top, innerShadow.bottom,
+                                               innerShadow.bottom);
     }
 
     /**
@@ -143,7 +145,7 @@ public class SeaGlassInternalShadowEffect {
         float       maxY   = (float) bounds.getMaxY();
         float       midX   = (float) bounds.getCenterX();
 
-        return new LinearGradientPaint(midX, minY, midX, maxY, (new float[] { 0f, 1f }), new Color[] { innerShadow.top, transparentColor });
+        return GradientCache.getLinearGradient(midX, minY, midX, maxY, TWO_COLOR_FRACTIONS, innerShadow.top, transparentColor);
     }
 
     /**
@@ -159,8 +161,7 @@ public class SeaGlassInternalShadowEffect {
         float       maxX   = (float) bounds.getMaxX();
         float       midY   = (float) bounds.getCenterY();
 
-        return new LinearGradientPaint(minX, midY, maxX, midY, (new float[] { 0f, 1f }),
-                                       new Color[] { innerShadow.bottom, transparentColor });
+        return GradientCache.getLinearGradient(minX, midY, maxX, midY, TWO_COLOR_FRACTIONS, innerShadow.bottom, transparentColor);
     }
 
     /**
@@ -176,7 +177,6 @@ public class SeaGlassInternalShadowEffect {
         float       maxX   = (float) bounds.getMaxX() - 1;
         float       midY   = (float) bounds.getCenterY();
 
-        return new LinearGradientPaint(minX, midY, maxX, midY, (new float[] { 0f, 1f }),
-                                       new Color[] { transparentColor, innerShadow.bottom });
+        return GradientCache.getLinearGradient(minX, midY, maxX, midY, TWO_COLOR_FRACTIONS, transparentColor, innerShadow.bottom);
     }
 }
@@ -47,6 +47,22 @@ public abstract class ShadowEffect extends Effect {
     /** Size in pixels */
     protected int size = 5;
 
+    /**
+     * The algorithm used to blur the shadow. Subclasses drawing large shadows
+     * may choose the box blur.
+     */
+    protected BlurType blurType = BlurType.GAUSSIAN;
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>A shadow is determined by its class and its parameters.</p>
+     */
+    @Override
+    protected Object getEffectKey() {
+        return new Object[] { getClass(), color == null ? null : color.getRGB(), opacity, angle, distance, spread, size, blurType };
+    }
+
     // =================================================================================================================
     // Bean methods
 
@@ -161,4 +177,22 @@ public abstract class ShadowEffect extends Effect {
         // int old = getSize();
         this.size = size;
     }
+
+    /**
+     * Get the algorithm used to blur the shadow.
+     *
+     * @return the blur type.
+     */
+    protected BlurType getBlurType() {
+        return blurType;
+    }
+
+    /**
+     * Set the algorithm used to blur the shadow.
+     *
+     * @param blurType the new blur type.
+     */
+    protected void setBlurType(BlurType blurType) {
+        this.blurType = blurType;
+    }
 }
@@ -26,13 +26,12 @@ package com.seaglasslookandfeel.icons;
 
 import java.awt.*;
 import java.awt.geom.*;
-import javax.swing.Icon; 
 
 /**
  * This class has been automatically generated using svg2java
  * 
  */
-public class FileIcon implements Icon {
+public class FileIcon implements TranscodedIcon {
     
     private float origAlpha = 1.0f;
 
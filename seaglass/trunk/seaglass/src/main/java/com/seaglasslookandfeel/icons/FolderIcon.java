@@ -2,13 +2,12 @@ package com.seaglasslookandfeel.icons;
 
 import java.awt.*;
 import java.awt.geom.*;
-import javax.swing.Icon; 
 
 /**
  * This class has been automatically generated using svg2java
  * 
  */
-public class FolderIcon implements Icon {
+public class FolderIcon implements TranscodedIcon {
 	
 	private float origAlpha = 1.0f;
 
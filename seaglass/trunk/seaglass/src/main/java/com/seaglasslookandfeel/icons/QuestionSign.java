@@ -2,13 +2,12 @@ package com.seaglasslookandfeel.icons;
 
 import java.awt.*;
 import java.awt.geom.*;
-import javax.swing.Icon; 
 
 /**
  * This class has been automatically generated using svg2java
  * 
  */
-public class QuestionSign implements Icon {
+public class QuestionSign implements TranscodedIcon {
     
     private float origAlpha = 1.0f;
 
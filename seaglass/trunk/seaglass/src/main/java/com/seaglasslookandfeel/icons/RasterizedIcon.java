@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2009 Kathryn Huxtable and Kenneth Orr.
+ *
+ * This file is part of the SeaGlass Pluggable Look and Feel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * $Id$
+ */
+package com.seaglasslookandfeel.icons;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.PrintGraphics;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.print.PrinterGraphics;
+
+import javax.swing.AbstractButton;
+import javax.swing.Icon;
+
+import com.seaglasslookandfeel.util.ImageCache;
+
+/**
+ * Paints another icon from an image kept in the {@link ImageCache}, so that
+ * icons built from many shapes, such as the transcoded SVG icons, are drawn
+ * with a single image copy.
+ *
+ * <p>The image is keyed by the icon's class, its size, the graphics
+ * configuration, and whether the component is enabled and selected, so icons
+ * of the same class must paint the same way at the same size. When printing,
+ * or when the graphics is scaled or rotated, the icon is painted directly so
+ * that it stays sharp.</p>
+ */
+public class RasterizedIcon implements Icon {
+
+    private final Icon icon;
+
+    /**
+     * Creates a new RasterizedIcon object.
+     *
+     * @param icon the icon to paint.
+     */
+    public RasterizedIcon(Icon icon) {
+        this.icon = icon;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getIconWidth() {
+        return icon.getIconWidth();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getIconHeight() {
+        return icon.getIconHeight();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void paintIcon(Component c, Graphics g, int x, int y) {
+        int width  = icon.getIconWidth();
+        int height = icon.getIconHeight();
+
+        if (width <= 0 || height <= 0 || !(g instanceof Graphics2D) || g instanceof PrinterGraphics || g instanceof PrintGraphics
+                || (((Graphics2D) g).getTransform().getType() & ~AffineTransform.TYPE_TRANSLATION) != 0) {
+            icon.paintIcon(c, g, x, y);
+            return;
+        }
+
+        GraphicsConfiguration config = ((Graphics2D) g).getDeviceConfiguration();
+
+        // Transcoded icons are drawn at their SVG coordinates, so the image
+        // must be big enough for the whole scaled bounding box, plus a pixel
+        // for antialiasing and strokes.
+        int imageWidth  = width;
+        int imageHeight = height;
+
+        if (icon instanceof TranscodedIcon) {
+            TranscodedIcon transcoded = (TranscodedIcon) icon;
+            double         scale      = Math.min((double) width / transcoded.getOrigWidth(),
+                                                 (double) height / transcoded.getOrigHeight());
+
+            imageWidth  = Math.max(width, (int) Math.ceil((transcoded.getOrigX() + transcoded.getOrigWidth()) * scale) + 1);
+            imageHeight = Math.max(height, (int) Math.ceil((transcoded.getOrigY() + transcoded.getOrigHeight()) * scale) + 1);
+        }
+
+        ImageCache cache = ImageCache.getInstance();
+
+        if (config == null || !cache.isImageCachable(imageWidth, imageHeight)) {
+            icon.paintIcon(c, g, x, y);
+            return;
+        }
+
+        boolean enabled  = c == null || c.isEnabled();
+        boolean selected = c instanceof AbstractButton && ((AbstractButton) c).isSelected();
+        Image   image    = cache.getImage(config, imageWidth, imageHeight, icon.getClass(), width, height, enabled, selected);
+
+        if (image == null) {
+            image = config.createCompatibleImage(imageWidth, imageHeight, Transparency.TRANSLUCENT);
+            Graphics2D g2d = (Graphics2D) image.getGraphics();
+
+            icon.paintIcon(c, g2d, 0, 0);
+            g2d.dispose();
+
+            cache.setImage(image, config, imageWidth, imageHeight, icon.getClass(), width, height, enabled, selected);
+        }
+
+        g.drawImage(image, x, y, null);
+    }
+}
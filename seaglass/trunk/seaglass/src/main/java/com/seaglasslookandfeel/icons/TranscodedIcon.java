@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2009 Kathryn Huxtable and Kenneth Orr.
+ *
+ * This file is part of the SeaGlass Pluggable Look and Feel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * $Id$
+ */
+package com.seaglasslookandfeel.icons;
+
+import java.awt.Dimension;
+
+import javax.swing.Icon;
+
+/**
+ * A resizable icon transcoded from SVG. The icon is scaled to fit its
+ * dimension, keeping the original aspect ratio, and is drawn at the original
+ * SVG coordinates, so it may extend past its width and height.
+ */
+public interface TranscodedIcon extends Icon {
+
+    /**
+     * Returns the X of the bounding box of the original SVG image.
+     *
+     * @return The X of the bounding box of the original SVG image.
+     */
+    int getOrigX();
+
+    /**
+     * Returns the Y of the bounding box of the original SVG image.
+     *
+     * @return The Y of the bounding box of the original SVG image.
+     */
+    int getOrigY();
+
+    /**
+     * Returns the width of the bounding box of the original SVG image.
+     *
+     * @return The width of the bounding box of the original SVG image.
+     */
+    int getOrigWidth();
+
+    /**
+     * Returns the height of the bounding box of the original SVG image.
+     *
+     * @return The height of the bounding box of the original SVG image.
+     */
+    int getOrigHeight();
+
+    /**
+     * Set the dimension of the icon.
+     *
+     * @param newDimension the new dimension.
+     */
+    void setDimension(Dimension newDimension);
+}
@@ -2,13 +2,12 @@ package com.seaglasslookandfeel.icons;
 
 import java.awt.*;
 import java.awt.geom.*;
-import javax.swing.Icon; 
 
 /**
  * This class has been automatically generated using svg2java
  * 
  */
-public class ViewDetailsIcon implements Icon {
+public class ViewDetailsIcon implements TranscodedIcon {
 	
 	private float origAlpha = 1.0f;
 
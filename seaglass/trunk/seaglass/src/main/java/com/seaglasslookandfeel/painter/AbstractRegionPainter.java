@@ -21,6 +21,7 @@ package com.seaglasslookandfeel.painter;
 
 import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.Insets;
@@ -35,6 +36,10 @@ import java.awt.image.VolatileImage;
 import java.awt.print.PrinterGraphics;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.JComponent;
 import javax.swing.JList;
@@ -44,10 +49,12 @@ import javax.swing.plaf.UIResource;
 
 import com.seaglasslookandfeel.SeaGlassLookAndFeel;
 import com.seaglasslookandfeel.painter.AbstractRegionPainter.PaintContext.CacheMode;
+import com.seaglasslookandfeel.painter.util.GradientCache;
 import com.seaglasslookandfeel.painter.util.ShapeGenerator;
 import com.seaglasslookandfeel.state.ControlInToolBarState;
 import com.seaglasslookandfeel.state.State;
 import com.seaglasslookandfeel.util.ImageCache;
+import com.seaglasslookandfeel.util.ImageScalingHelper;
 import com.seaglasslookandfeel.util.SeaGlassGraphicsUtils;
 
 /**
@@ -61,6 +68,22 @@ import com.seaglasslookandfeel.util.SeaGlassGraphicsUtils;
 public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponent> {
     private static final State inToolBarState = new ControlInToolBarState();
 
+    /** The fractions of a gradient between two colors. */
+    private static final float[] TWO_COLOR_FRACTIONS = { 0f, 1f };
+
+    /** The fractions of a gradient between four colors. */
+    private static final float[] FOUR_COLOR_FRACTIONS = { 0f, 0.45f, 0.62f, 1f };
+
+    /** Marks a component class and property without a usable color getter. */
+    private static final Object NO_GETTER = new Object();
+
+    /**
+     * The color getters used by getComponentColor, by component class and
+     * property. Each value is either the Method or NO_GETTER. Cleared when the
+     * look and feel is uninstalled, since the getters hold their classes.
+     */
+    private static final Map<Class<?>, Map<String, Object>> colorGetters = new ConcurrentHashMap<Class<?>, Map<String, Object>>();
+
     /**
      * Focus ring color state.
      */
@@ -127,7 +150,13 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
         ctx = getPaintContext();
         CacheMode cacheMode = ctx == null ? CacheMode.NO_CACHING : ctx.getCacheMode();
 
-        if (cacheMode == CacheMode.NO_CACHING || !ImageCache.getInstance().isImageCachable(w, h) || g instanceof PrinterGraphics) {
+        if (cacheMode == CacheMode.NO_CACHING || g instanceof PrinterGraphics) {
+            paintDirectly(g, c, w, h, extendedCacheKeys);
+        } else if (cacheMode == CacheMode.NINE_SQUARE_SCALE) {
+            paintWith9SquareCaching(g, ctx, c, w, h, extendedCacheKeys);
+        } else if (cacheMode == CacheMode.FIXED_ASPECT) {
+            paintWithFixedAspectCaching(g, ctx, c, w, h, extendedCacheKeys);
+        } else if (!ImageCache.getInstance().isImageCachable(w, h)) {
             paintDirectly(g, c, w, h, extendedCacheKeys);
         } else {
             paintWithCaching(g, c, w, h, extendedCacheKeys);
@@ -324,6 +353,9 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
      * points are equal. In such a case, the end y point is slightly increased
      * to avoid the overlap.
      *
+     * <p>Gradients are shared through the GradientCache, so painting the same
+     * gradient again allocates nothing.</p>
+     *
      * @param  x1
      * @param  y1
      * @param  x2
@@ -338,7 +370,56 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
             y2 += .00001f;
         }
 
-        return new LinearGradientPaint(x1, y1, x2, y2, midpoints, colors);
+        return GradientCache.getLinearGradient(x1, y1, x2, y2, midpoints, colors);
+    }
+
+    /**
+     * Create a linear gradient between two colors, as
+     * {@link #createGradient(float, float, float, float, float[], Color[])}
+     * does, without needing an array for the colors.
+     *
+     * @param  x1
+     * @param  y1
+     * @param  x2
+     * @param  y2
+     * @param  midpoints
+     * @param  c1
+     * @param  c2
+     *
+     * @return a valid LinearGradientPaint. This method never returns null.
+     */
+    protected final LinearGradientPaint createGradient(float x1, float y1, float x2, float y2, float[] midpoints, Color c1, Color c2) {
+        if (x1 == x2 && y1 == y2) {
+            y2 += .00001f;
+        }
+
+        return GradientCache.getLinearGradient(x1, y1, x2, y2, midpoints, c1, c2);
+    }
+
+    /**
+     * Create a linear gradient between four colors, as
+     * {@link #createGradient(float, float, float, float, float[], Color[])}
+     * does, without needing an array for the colors.
+     *
+     * @param  x1
+     * @param  y1
+     * @param  x2
+     * @param  y2
+     * @param  midpoints
+     * @param  c1
+     * @param  c2
+     * @param  c3
+     * @param  c4
+     *
+     * @return a valid LinearGradientPaint. This method never returns null.
+     */
+    protected final LinearGradientPaint createGradient(float x1, float y1, float x2, float y2, float[] midpoints, Color c1, Color c2,
+            Color c3, Color c4) {
+        if (x1 == x2 && y1 == y2) {
+            y2 += .00001f;
+        }
+
+        return GradientCache.getLinearGradient(x1, y1, x2, y2, midpoints, c1, c2, c3, c4);
     }
 
     /**
@@ -361,7 +442,7 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
             r = .00001f;
         }
 
-        return new RadialGradientPaint(x, y, r, midpoints, colors);
+        return GradientCache.getRadialGradient(x, y, r, midpoints, colors);
     }
 
     /**
@@ -379,7 +460,7 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
         float       yMin    = (float) bounds.getMinY();
         float       yMax    = (float) bounds.getMaxY();
 
-        return createGradient(xCenter, yMin, xCenter, yMax, new float[] { 0f, 1f }, new Color[] { colors.top, colors.bottom });
+        return createGradient(xCenter, yMin, xCenter, yMax, TWO_COLOR_FRACTIONS, colors.top, colors.bottom);
     }
 
     /**
@@ -397,8 +478,8 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
         float       yMin    = (float) bounds.getMinY();
         float       yMax    = (float) bounds.getMaxY();
 
-        return createGradient(xCenter, yMin, xCenter, yMax, new float[] { 0f, 0.45f, 0.62f, 1f },
-                              new Color[] { colors.top, colors.upperMid, colors.lowerMid, colors.bottom });
+        return createGradient(xCenter, yMin, xCenter, yMax, FOUR_COLOR_FRACTIONS, colors.top, colors.upperMid, colors.lowerMid,
+                              colors.bottom);
     }
 
     /**
@@ -416,7 +497,7 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
         float       xMax    = (float) bounds.getMaxX();
         float       yCenter = (float) bounds.getCenterY();
 
-        return createGradient(xMin, yCenter, xMax, yCenter, new float[] { 0f, 1f }, new Color[] { colors.top, colors.bottom });
+        return createGradient(xMin, yCenter, xMax, yCenter, TWO_COLOR_FRACTIONS, colors.top, colors.bottom);
     }
 
     /**
@@ -435,8 +516,8 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
         float       w      = (float) bounds.getWidth();
         float       h      = (float) bounds.getHeight();
 
-        return createGradient(x, (0.5f * h) + y, x + w, (0.5f * h) + y, new float[] { 0f, 0.45f, 0.62f, 1f },
-                              new Color[] { colors.top, colors.upperMid, colors.lowerMid, colors.bottom });
+        return createGradient(x, (0.5f * h) + y, x + w, (0.5f * h) + y, FOUR_COLOR_FRACTIONS, colors.top, colors.upperMid,
+                              colors.lowerMid, colors.bottom);
     }
 
     /**
@@ -476,17 +557,14 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
             } else if (c instanceof JTable && "selectionBackground".equals(property)) {
                 color = ((JTable) c).getSelectionBackground();
             } else {
-                String s = "get" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+                Method method = getColorGetter(c.getClass(), property);
 
-                try {
-                    Method method = c.getClass().getMethod(s);
-
-                    color = (Color) method.invoke(c);
-                } catch (Exception e) {
-                    // don't do anything, it just didn't work, that's all.
-                    // This could be a normal occurance if you use a property
-                    // name referring to a key in clientProperties instead of
-                    // a real property
+                if (method != null) {
+                    try {
+                        color = (Color) method.invoke(c);
+                    } catch (Exception e) {
+                        // The getter failed, fall back to the client property.
+                    }
                 }
 
                 if (color == null) {
@@ -520,6 +598,60 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
         }
     }
 
+    /**
+     * Get the public getter for a color property of a component class. The
+     * result is cached, including the absence of a getter, which is the normal
+     * case for a property naming a client property, so that only the first
+     * lookup for each class and property pays for reflection.
+     *
+     * @param  type     the component class.
+     * @param  property the name of the bean style property.
+     *
+     * @return the getter, or null if the class has no public getter which
+     *         can return a Color for the property.
+     */
+    private static Method getColorGetter(Class<?> type, String property) {
+        Map<String, Object> getters = colorGetters.get(type);
+
+        if (getters == null) {
+            getters = new ConcurrentHashMap<String, Object>();
+            colorGetters.put(type, getters);
+        }
+
+        Object getter = getters.get(property);
+
+        if (getter == null) {
+            getter = NO_GETTER;
+
+            try {
+                Method method = type.getMethod("get" + Character.toUpperCase(property.charAt(0)) + property.substring(1));
+
+                // A getter declared by a class we cannot access, or returning
+                // a type no color can have, would never yield a color.
+                Class<?> returnType = method.getReturnType();
+
+                if (Modifier.isPublic(method.getDeclaringClass().getModifiers())
+                        && (returnType.isAssignableFrom(Color.class) || Color.class.isAssignableFrom(returnType))) {
+                    getter = method;
+                }
+            } catch (Exception e) {
+                // No such getter, this is a client property.
+            }
+
+            getters.put(property, getter);
+        }
+
+        return getter == NO_GETTER ? null : (Method) getter;
+    }
+
+    /**
+     * Forget the color getters, so that no component class is held after the
+     * look and feel is uninstalled. Called when it is uninstalled.
+     */
+    public static void clearColorGetters() {
+        colorGetters.clear();
+    }
+
     /**
      * Returns a new color with the alpha of the old color cut in half.
      *
@@ -621,6 +753,111 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
         }
     }
 
+    /**
+     * Paint the component by rendering it once at the canvas size of the paint
+     * context and stretching the cached image into the requested size, keeping
+     * the corners as they were rendered and scaling only the edges and the
+     * center. If the requested size is too large to scale the cached image
+     * into, too small to hold the unscaled corners, or the canvas cannot be
+     * cached, paint directly.
+     *
+     * @param g                 the Graphics2D context to paint with.
+     * @param ctx               the paint context.
+     * @param c                 the component to paint.
+     * @param w                 the component width.
+     * @param h                 the component height.
+     * @param extendedCacheKeys extended cache keys.
+     */
+    private void paintWith9SquareCaching(Graphics2D g, PaintContext ctx, JComponent c, int w, int h, Object[] extendedCacheKeys) {
+        Dimension canvas = ctx.canvasSize;
+        Insets    insets = ctx.stretchingInsets;
+
+        if (w > canvas.width * ctx.maxHorizontalScaleFactor || h > canvas.height * ctx.maxVerticalScaleFactor
+                || (!ctx.inverted && (w < insets.left + insets.right || h < insets.top + insets.bottom))
+                || !ImageCache.getInstance().isImageCachable(canvas.width, canvas.height)) {
+            paintDirectly(g, c, w, h, extendedCacheKeys);
+            return;
+        }
+
+        // get image at canvas size
+        VolatileImage img = getImage(g.getDeviceConfiguration(), c, canvas.width, canvas.height, extendedCacheKeys);
+
+        if (img == null) {
+            paintDirectly(g, c, w, h, extendedCacheKeys);
+        } else if (w == canvas.width && h == canvas.height) {
+            g.drawImage(img, 0, 0, null);
+        } else {
+
+            // calculate destination insets
+            Insets dstInsets;
+
+            if (ctx.inverted) {
+                int leftRight = (w - (canvas.width - (insets.left + insets.right))) / 2;
+                int topBottom = (h - (canvas.height - (insets.top + insets.bottom))) / 2;
+
+                dstInsets = new Insets(topBottom, leftRight, topBottom, leftRight);
+            } else {
+                dstInsets = insets;
+            }
+
+            // paint 9 square scaled
+            Object oldScalingHints = g.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            ImageScalingHelper.paint(g, 0, 0, w, h, img, insets, dstInsets, ImageScalingHelper.PaintType.PAINT9_STRETCH,
+                                     ImageScalingHelper.PAINT_ALL);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                               oldScalingHints != null ? oldScalingHints : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        }
+    }
+
+    /**
+     * Paint the component by rendering it once at the canvas size of the paint
+     * context and scaling the cached image uniformly into the largest area of
+     * the requested size that keeps the canvas aspect ratio. The scaled image
+     * is centered in the requested size. If the requested size is too large to
+     * scale the cached image into, or the canvas cannot be cached, paint
+     * directly.
+     *
+     * @param g                 the Graphics2D context to paint with.
+     * @param ctx               the paint context.
+     * @param c                 the component to paint.
+     * @param w                 the component width.
+     * @param h                 the component height.
+     * @param extendedCacheKeys extended cache keys.
+     */
+    private void paintWithFixedAspectCaching(Graphics2D g, PaintContext ctx, JComponent c, int w, int h, Object[] extendedCacheKeys) {
+        Dimension canvas = ctx.canvasSize;
+
+        if (w > canvas.width * ctx.maxHorizontalScaleFactor || h > canvas.height * ctx.maxVerticalScaleFactor
+                || !ImageCache.getInstance().isImageCachable(canvas.width, canvas.height)) {
+            paintDirectly(g, c, w, h, extendedCacheKeys);
+            return;
+        }
+
+        // get image at canvas size
+        VolatileImage img = getImage(g.getDeviceConfiguration(), c, canvas.width, canvas.height, extendedCacheKeys);
+
+        if (img == null) {
+            paintDirectly(g, c, w, h, extendedCacheKeys);
+        } else if (w == canvas.width && h == canvas.height) {
+            g.drawImage(img, 0, 0, null);
+        } else {
+            double scale = Math.min((double) w / canvas.width, (double) h / canvas.height);
+            int    dw    = (int) Math.round(canvas.width * scale);
+            int    dh    = (int) Math.round(canvas.height * scale);
+            int    dx    = (w - dw) / 2;
+            int    dy    = (h - dh) / 2;
+
+            Object oldScalingHints = g.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(img, dx, dy, dx + dw, dy + dh, 0, 0, canvas.width, canvas.height, null);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                               oldScalingHints != null ? oldScalingHints : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        }
+    }
+
     /**
      * Convenience method which creates a temporary graphics object by creating
      * a clone of the passed in one, configuring it, drawing with it, disposing
@@ -763,12 +1000,30 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
 
         /**
          * The cache modes.
+         *
+         * <ul>
+         *   <li><code>NO_CACHING</code> paints directly on every call.</li>
+         *   <li><code>FIXED_SIZES</code> caches one image for every size
+         *     requested.</li>
+         *   <li><code>NINE_SQUARE_SCALE</code> caches one image at the canvas
+         *     size and stretches it into the requested size, keeping the
+         *     corners defined by the stretching insets unscaled.</li>
+         *   <li><code>FIXED_ASPECT</code> caches one image at the canvas size
+         *     and scales it uniformly into the requested size, centered.</li>
+         * </ul>
          */
         public static enum CacheMode {
-            NO_CACHING, FIXED_SIZES
+            NO_CACHING, FIXED_SIZES, NINE_SQUARE_SCALE, FIXED_ASPECT
         }
 
+        private static final Insets EMPTY_INSETS = new Insets(0, 0, 0, 0);
+
         private CacheMode cacheMode;
+        private Insets    stretchingInsets;
+        private Dimension canvasSize;
+        private boolean   inverted;
+        private double    maxHorizontalScaleFactor;
+        private double    maxVerticalScaleFactor;
 
         /**
          * Creates a new PaintContext.
@@ -777,7 +1032,69 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
          *                  then set to no caching.
          */
         public PaintContext(CacheMode cacheMode) {
-            this.cacheMode = cacheMode == null ? CacheMode.NO_CACHING : cacheMode;
+            this(cacheMode, null, null, false);
+        }
+
+        /**
+         * Creates a new PaintContext which may scale its cached image to any
+         * size.
+         *
+         * @param cacheMode  A hint as to which caching mode to use. If null,
+         *                   then set to no caching.
+         * @param insets     The stretching insets. May be null. If null, then
+         *                   assumed to be 0, 0, 0, 0.
+         * @param canvasSize The size of the canvas at which the painter renders
+         *                   the image that is cached and scaled. Required for
+         *                   <code>NINE_SQUARE_SCALE</code> and <code>
+         *                   FIXED_ASPECT</code>. If null, those modes fall back
+         *                   to <code>FIXED_SIZES</code>.
+         * @param inverted   Whether to "invert" the meaning of the 9-square
+         *                   grid and stretching insets, keeping the center
+         *                   unscaled and stretching the outside regions.
+         */
+        public PaintContext(CacheMode cacheMode, Insets insets, Dimension canvasSize, boolean inverted) {
+            this(cacheMode, insets, canvasSize, inverted, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Creates a new PaintContext.
+         *
+         * @param cacheMode  A hint as to which caching mode to use. If null,
+         *                   then set to no caching.
+         * @param insets     The stretching insets. May be null. If null, then
+         *                   assumed to be 0, 0, 0, 0.
+         * @param canvasSize The size of the canvas at which the painter renders
+         *                   the image that is cached and scaled. Required for
+         *                   <code>NINE_SQUARE_SCALE</code> and <code>
+         *                   FIXED_ASPECT</code>. If null, those modes fall back
+         *                   to <code>FIXED_SIZES</code>.
+         * @param inverted   Whether to "invert" the meaning of the 9-square
+         *                   grid and stretching insets, keeping the center
+         *                   unscaled and stretching the outside regions.
+         * @param maxH       The maximum horizontal scale factor to use in
+         *                   caching. For example, if maxH is 2, then the cached
+         *                   image is stretched to at most twice the canvas
+         *                   width before punting and painting directly.
+         * @param maxV       The maximum vertical scale factor to use in
+         *                   caching.
+         */
+        public PaintContext(CacheMode cacheMode, Insets insets, Dimension canvasSize, boolean inverted, double maxH, double maxV) {
+            if (maxH < 1 || maxV < 1) {
+                throw new IllegalArgumentException("Both maxH and maxV must be >= 1");
+            }
+
+            if (cacheMode == null) {
+                cacheMode = CacheMode.NO_CACHING;
+            } else if (canvasSize == null && (cacheMode == CacheMode.NINE_SQUARE_SCALE || cacheMode == CacheMode.FIXED_ASPECT)) {
+                cacheMode = CacheMode.FIXED_SIZES;
+            }
+
+            this.cacheMode                = cacheMode;
+            this.stretchingInsets         = insets == null ? EMPTY_INSETS : insets;
+            this.canvasSize               = canvasSize;
+            this.inverted                 = inverted;
+            this.maxHorizontalScaleFactor = maxH;
+            this.maxVerticalScaleFactor   = maxV;
         }
 
         /**
@@ -788,6 +1105,34 @@ public abstract class AbstractRegionPainter implements SeaGlassPainter<JComponen
         public CacheMode getCacheMode() {
             return cacheMode;
         }
+
+        /**
+         * Returns the stretching insets.
+         *
+         * @return the stretching insets.
+         */
+        public Insets getStretchingInsets() {
+            return stretchingInsets;
+        }
+
+        /**
+         * Returns the canvas size.
+         *
+         * @return the canvas size, or null if none was given.
+         */
+        public Dimension getCanvasSize() {
+            return canvasSize;
+        }
+
+        /**
+         * Returns whether the stretching insets are inverted.
+         *
+         * @return {@code true} if the center is kept unscaled, {@code false}
+         *         otherwise.
+         */
+        public boolean isInverted() {
+            return inverted;
+        }
     }
 
     /**
@@ -23,6 +23,7 @@ import java.awt.Graphics2D;
 
 import javax.swing.JComponent;
 
+import com.seaglasslookandfeel.SeaGlassStyle;
 import com.seaglasslookandfeel.painter.AbstractRegionPainter.PaintContext.CacheMode;
 import com.seaglasslookandfeel.painter.button.ButtonVariantPainter;
 import com.seaglasslookandfeel.painter.button.SegmentedButtonPainter;
@@ -68,7 +69,11 @@ public final class ButtonPainter extends AbstractRegionPainter {
      * {@inheritDoc}
      */
     protected Object[] getExtendedCacheKeys(JComponent c) {
-        Object[] extendedCacheKeys = new Object[] {};
+        // The variant, segment, height and border all depend on these.
+        Object[] extendedCacheKeys = new Object[] {
+                c.getClientProperty("JButton.buttonType"), c.getClientProperty("JButton.segmentPosition"),
+                SeaGlassStyle.getSizeVariant(c), isInToolBar(c)
+            };
 
         return extendedCacheKeys;
     }
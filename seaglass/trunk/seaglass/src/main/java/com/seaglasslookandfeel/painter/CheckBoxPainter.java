@@ -31,7 +31,9 @@ import javax.swing.JComponent;
 import com.seaglasslookandfeel.effect.Effect;
 import com.seaglasslookandfeel.effect.SeaGlassDropShadowEffect;
 import com.seaglasslookandfeel.painter.AbstractRegionPainter.PaintContext.CacheMode;
+import com.seaglasslookandfeel.painter.util.ShapeGenerator;
 import com.seaglasslookandfeel.painter.util.ShapeGenerator.CornerSize;
+import com.seaglasslookandfeel.painter.util.ShapeGenerator.ShapeKind;
 
 /**
  * CheckBoxPainter implementation.
@@ -102,35 +104,52 @@ public final class CheckBoxPainter extends AbstractCommonColorsPainter {
 
         Shape s;
 
+        if (!focused) {
+            // The effect only covers the bounds of the shape measured from
+            // the origin, so it is given the shape where it is painted.
+            dropShadow.fill(g, shapeGenerator.createRoundRectangle(x + 2, y + 2, size - 4, size - 4, CornerSize.CHECKBOX_BORDER));
+        }
+
+        // The shapes are shared, so paint at their origin. The same check box
+        // in every row of a table or list then reuses the same shapes.
+        g.translate(x, y);
+
         if (focused) {
             boolean useToolBarFocus = isInToolBar(c);
 
-            s = shapeGenerator.createRoundRectangle(x, y, size, size, CornerSize.CHECKBOX_OUTER_FOCUS);
+            s = ShapeGenerator.getRoundRectangle(size, size, CornerSize.CHECKBOX_OUTER_FOCUS);
             g.setPaint(getFocusPaint(s, FocusType.OUTER_FOCUS, useToolBarFocus));
             g.fill(s);
-            s = shapeGenerator.createRoundRectangle(x + 1, y + 1, size - 2, size - 2, CornerSize.CHECKBOX_INNER_FOCUS);
+            g.translate(1, 1);
+            s = ShapeGenerator.getRoundRectangle(size - 2, size - 2, CornerSize.CHECKBOX_INNER_FOCUS);
             g.setPaint(getFocusPaint(s, FocusType.INNER_FOCUS, useToolBarFocus));
             g.fill(s);
+            g.translate(-1, -1);
         }
 
-        s = shapeGenerator.createRoundRectangle(x + 2, y + 2, size - 4, size - 4, CornerSize.CHECKBOX_BORDER);
-
-        if (!focused) {
-            dropShadow.fill(g, s);
-        }
-
+        g.translate(2, 2);
+        s = ShapeGenerator.getRoundRectangle(size - 4, size - 4, CornerSize.CHECKBOX_BORDER);
         g.setPaint(getCommonBorderPaint(s, type));
         g.fill(s);
 
-        s = shapeGenerator.createRoundRectangle(x + 3, y + 3, size - 6, size - 6, CornerSize.CHECKBOX_INTERIOR);
+        g.translate(1, 1);
+        s = ShapeGenerator.getRoundRectangle(size - 6, size - 6, CornerSize.CHECKBOX_INTERIOR);
         g.setPaint(getCommonInteriorPaint(s, type));
         g.fill(s);
+        g.translate(-3, -3);
 
         if (selected) {
-            s = createCheckMark(x, y, size);
+            int markX = (int) (size * X_MULTIPLIER + 0.5);
+            int markY = (int) (size * Y_MULTIPLIER + 0.5);
+
+            g.translate(markX, markY);
+            s = createCheckMark(size);
             g.setPaint(getCheckBoxBulletPaint(s, type));
             g.fill(s);
+            g.translate(-markX, -markY);
         }
+
+        g.translate(-x, -y);
     }
 
     /**
@@ -177,20 +196,16 @@ public final class CheckBoxPainter extends AbstractCommonColorsPainter {
     }
 
     /**
-     * Create the check mark shape.
+     * Create the check mark shape, at the origin.
      *
-     * @param  x    the x coordinate of the upper-left corner of the check mark.
-     * @param  y    the y coordinate of the upper-left corner of the check mark.
-     * @param  size the check mark size in pixels.
+     * @param  size the check box size in pixels.
      *
      * @return the check mark shape.
      */
-    private Shape createCheckMark(int x, int y, int size) {
+    private Shape createCheckMark(int size) {
         int markSize = (int) (size * SIZE_MULTIPLIER + 0.5);
-        int markX    = x + (int) (size * X_MULTIPLIER + 0.5);
-        int markY    = y + (int) (size * Y_MULTIPLIER + 0.5);
 
-        return shapeGenerator.createCheckMark(markX, markY, markSize, markSize);
+        return ShapeGenerator.getShape(ShapeKind.CHECK_MARK, markSize, markSize);
     }
 
     /**
@@ -31,6 +31,8 @@ import com.seaglasslookandfeel.icons.FolderIcon;
 import com.seaglasslookandfeel.icons.FolderNewIcon;
 import com.seaglasslookandfeel.icons.FolderUpIcon;
 import com.seaglasslookandfeel.icons.HardDiskIcon;
+import com.seaglasslookandfeel.icons.RasterizedIcon;
+import com.seaglasslookandfeel.icons.TranscodedIcon;
 import com.seaglasslookandfeel.icons.ViewDetailsIcon;
 import com.seaglasslookandfeel.icons.ViewListIcon;
 import com.seaglasslookandfeel.painter.AbstractRegionPainter.PaintContext.CacheMode;
@@ -43,8 +45,9 @@ public final class FileChooserPainter extends AbstractRegionPainter {
         HARDDRIVEICON_ENABLED, FLOPPYDRIVEICON_ENABLED        
     };
 
-    private Which        state;
-    private PaintContext ctx;
+    private Which                   state;
+    private PaintContext            ctx;
+    private volatile RasterizedIcon rasterizedIcon;
    
     /**
      * @param state
@@ -53,93 +56,55 @@ public final class FileChooserPainter extends AbstractRegionPainter {
         super();
         this.state = state;
         this.ctx = new PaintContext(CacheMode.NO_CACHING);
+        this.rasterizedIcon = new RasterizedIcon(createIcon());
     }
 
     @Override
     protected void doPaint(Graphics2D g, JComponent c, int width, int height, Object[] extendedCacheKeys) {
+        RasterizedIcon icon = rasterizedIcon;
+
+        // The painter is shared, so an icon is never resized while it may be
+        // painted. Painting at another size uses a new icon of that size, its
+        // image is cached by size.
+        if (icon.getIconWidth() != width || icon.getIconHeight() != height) {
+            TranscodedIcon transcoded = createIcon();
+
+            transcoded.setDimension(new Dimension(width, height));
+            icon           = new RasterizedIcon(transcoded);
+            rasterizedIcon = icon;
+        }
+
+        icon.paintIcon(c, g, 0, 0);
+    }
+
+    /**
+     * Create the icon painted in this state, at its default size.
+     *
+     * @return the icon.
+     */
+    private TranscodedIcon createIcon() {
         switch (state) {
         case FILEICON_ENABLED:
-            paintFileIcon(g, c, width, height);
-            break;
+            return new FileIcon();
         case DIRECTORYICON_ENABLED:
-            paintDirectoryIcon(g, c, width, height);
-            break;
+            return new FolderIcon();
         case UPFOLDERICON_ENABLED:
-            paintUpFolderIcon(g, c, width, height);
-            break;
+            return new FolderUpIcon();
         case NEWFOLDERICON_ENABLED:
-            paintNewFolderIcon(g, c, width, height);
-            break;
+            return new FolderNewIcon();
         case HOMEFOLDERICON_ENABLED:
-            paintHomeFolderIcon(g, c, width, height);
-            break;
+            return new FolderHomeIcon();
         case DETAILSVIEWICON_ENABLED:
-            paintViewDetailsIcon(g, c, width, height);
-            break;
+            return new ViewDetailsIcon();
         case LISTVIEWICON_ENABLED:
-            paintViewListIcon(g, c, width, height);
-            break;
+            return new ViewListIcon();
         case HARDDRIVEICON_ENABLED:
-            paintHardDriveIcon(g, c, width, height);
-            break;
+            return new HardDiskIcon();
         case FLOPPYDRIVEICON_ENABLED:
-            paintFloppyDiskIcon(g, c, width, height);
-            break;
+            return new FloppyDiskIcon();
         }
-    }
 
-    private void paintFloppyDiskIcon(Graphics2D g, JComponent c, int width, int height) {
-        FloppyDiskIcon icon = new FloppyDiskIcon();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, 0, 0);
-    }
-
-    private void paintHardDriveIcon(Graphics2D g, JComponent c, int width, int height) {
-        HardDiskIcon icon = new HardDiskIcon();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, 0, 0);
-    }
-
-    private void paintViewListIcon(Graphics2D g, JComponent c, int width, int height) {
-        ViewListIcon icon = new ViewListIcon();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, 0, 0);
-    }
-
-    private void paintViewDetailsIcon(Graphics2D g, JComponent c, int width, int height) {
-        ViewDetailsIcon icon = new ViewDetailsIcon();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, 0, 0);
-    }
-
-    private void paintHomeFolderIcon(Graphics2D g, JComponent c, int width, int height) {
-        FolderHomeIcon icon = new FolderHomeIcon();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, 0, 0);
-    }
-
-    private void paintNewFolderIcon(Graphics2D g, JComponent c, int width, int height) {
-        FolderNewIcon icon = new FolderNewIcon();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, 0, 0);
-    }
-
-    private void paintUpFolderIcon(Graphics2D g, JComponent c, int width, int height) {
-        FolderUpIcon icon = new FolderUpIcon();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, 0, 0);
-    }
-
-    private void paintDirectoryIcon(Graphics2D g, JComponent c, int width, int height) {
-        FolderIcon icon = new FolderIcon();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, 0, 0);
-    }
-
-    private void paintFileIcon(Graphics2D g, JComponent c, int width, int height) {
-        FileIcon icon = new FileIcon();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, 0, 0);
+        return null;
     }
 
     /**
@@ -27,6 +27,8 @@ import javax.swing.JComponent;
 import com.seaglasslookandfeel.icons.ErrorSign;
 import com.seaglasslookandfeel.icons.InfoSign;
 import com.seaglasslookandfeel.icons.QuestionSign;
+import com.seaglasslookandfeel.icons.RasterizedIcon;
+import com.seaglasslookandfeel.icons.TranscodedIcon;
 import com.seaglasslookandfeel.icons.WarningSign;
 import com.seaglasslookandfeel.painter.AbstractRegionPainter.PaintContext.CacheMode;
 
@@ -36,8 +38,10 @@ public final class OptionPanePainter extends AbstractRegionPainter {
         QUESTIONICON_ENABLED, WARNINGICON_ENABLED
     };
 
-    private Which        state;
-    private PaintContext ctx;
+    private Which                   state;
+    private PaintContext            ctx;
+    private volatile RasterizedIcon rasterizedIcon;
+    private int                     offset;
    
     /**
      * @param state
@@ -46,48 +50,61 @@ public final class OptionPanePainter extends AbstractRegionPainter {
         super();
         this.state = state;
         this.ctx = new PaintContext(CacheMode.NO_CACHING);
-    }
 
-    @Override
-    protected void doPaint(Graphics2D g, JComponent c, int width, int height, Object[] extendedCacheKeys) {
         switch (state) {
         case ERRORICON_ENABLED:
-            paintErrorSign(g, c, width, height);
+            offset = 0;
             break;
         case INFORMATIONICON_ENABLED:
-            paintInfoSign(g, c, width, height);
+            offset = -3;
             break;
         case QUESTIONICON_ENABLED:
-            paintQuestionSign(g, c, width, height);
+            offset = -3;
             break;
         case WARNINGICON_ENABLED:
-            paintWarningSign(g, c, width, height);
+            offset = -3;
             break;
         }
-    }
 
-    private void paintWarningSign(Graphics2D g, JComponent c, int width, int height) {
-        WarningSign icon = new WarningSign();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, -3, -3);
+        this.rasterizedIcon = new RasterizedIcon(createIcon());
     }
 
-    private void paintQuestionSign(Graphics2D g, JComponent c, int width, int height) {
-        QuestionSign icon = new QuestionSign();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, -3, -3);
-    }
+    @Override
+    protected void doPaint(Graphics2D g, JComponent c, int width, int height, Object[] extendedCacheKeys) {
+        RasterizedIcon icon = rasterizedIcon;
+
+        // The painter is shared, so an icon is never resized while it may be
+        // painted. Painting at another size uses a new icon of that size, its
+        // image is cached by size.
+        if (icon.getIconWidth() != width || icon.getIconHeight() != height) {
+            TranscodedIcon transcoded = createIcon();
+
+            transcoded.setDimension(new Dimension(width, height));
+            icon           = new RasterizedIcon(transcoded);
+            rasterizedIcon = icon;
+        }
 
-    private void paintInfoSign(Graphics2D g, JComponent c, int width, int height) {
-        InfoSign icon = new InfoSign();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, -3, -3);
+        icon.paintIcon(c, g, offset, offset);
     }
 
-    private void paintErrorSign(Graphics2D g, JComponent c, int width, int height) {
-        ErrorSign icon = new ErrorSign();
-        icon.setDimension(new Dimension(width, height));
-        icon.paintIcon(c, g, 0, 0);
+    /**
+     * Create the icon painted in this state, at its default size.
+     *
+     * @return the icon.
+     */
+    private TranscodedIcon createIcon() {
+        switch (state) {
+        case ERRORICON_ENABLED:
+            return new ErrorSign();
+        case INFORMATIONICON_ENABLED:
+            return new InfoSign();
+        case QUESTIONICON_ENABLED:
+            return new QuestionSign();
+        case WARNINGICON_ENABLED:
+            return new WarningSign();
+        }
+
+        return null;
     }
 
     /**
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2009 Kathryn Huxtable and Kenneth Orr.
+ *
+ * This file is part of the SeaGlass Pluggable Look and Feel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * $Id$
+ */
+package com.seaglasslookandfeel.painter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates the SeaGlass painters without reflection. The look and feel
+ * defaults name each painter by its class name and the Which value it is to
+ * paint, this maps them onto direct constructor calls.
+ *
+ * <p>Generated by GeneratePainterFactory in src/tools. Do not edit, run it
+ * again whenever a painter is added or removed.</p>
+ */
+public final class PainterFactory {
+
+    /** The painters, in the order of their ids. */
+    private static final String[] PAINTERS = {
+        "ArrowButtonPainter",
+        "ButtonPainter",
+        "CheckBoxMenuItemPainter",
+        "CheckBoxPainter",
+        "ComboBoxArrowButtonPainter",
+        "ComboBoxPainter",
+        "ComboBoxTextFieldPainter",
+        "ContentPanePainter",
+        "DesktopIconPainter",
+        "DesktopPanePainter",
+        "FileChooserPainter",
+        "FrameAndRootPainter",
+        "MenuBarMenuPainter",
+        "MenuItemPainter",
+        "MenuPainter",
+        "OptionPanePainter",
+        "PopupMenuPainter",
+        "PopupMenuSeparatorPainter",
+        "ProgressBarPainter",
+        "RadioButtonMenuItemPainter",
+        "RadioButtonPainter",
+        "ScrollBarButtonPainter",
+        "ScrollBarThumbPainter",
+        "ScrollBarTrackPainter",
+        "ScrollPanePainter",
+        "SearchFieldIconPainter",
+        "SearchFieldPainter",
+        "SeparatorPainter",
+        "SliderThumbPainter",
+        "SliderTrackPainter",
+        "SpinnerFormattedTextFieldPainter",
+        "SpinnerNextButtonPainter",
+        "SpinnerPreviousButtonPainter",
+        "SplitPaneDividerPainter",
+        "SplitPanePainter",
+        "TabbedPaneTabAreaPainter",
+        "TabbedPaneTabCloseButtonPainter",
+        "TabbedPaneTabPainter",
+        "TableHeaderPainter",
+        "TableHeaderRendererPainter",
+        "TextComponentPainter",
+        "TitlePaneCloseButtonPainter",
+        "TitlePaneIconifyButtonPainter",
+        "TitlePaneMaximizeButtonPainter",
+        "TitlePaneMenuButtonPainter",
+        "ToolBarHandlePainter",
+        "ToolBarPainter",
+        "ToolBarToggleButtonPainter",
+        "ToolTipPainter",
+        "TreeCellEditorPainter",
+        "TreeCellPainter",
+        "TreePainter",
+    };
+
+    /** Maps the fully qualified painter class names onto their ids. */
+    private static final Map<String, Integer> IDS = new HashMap<String, Integer>(PAINTERS.length * 2);
+
+    static {
+        for (int i = 0; i < PAINTERS.length; i++) {
+            IDS.put("com.seaglasslookandfeel.painter." + PAINTERS[i], i);
+        }
+    }
+
+    /**
+     * Not to be instantiated.
+     */
+    private PainterFactory() {
+    }
+
+    /**
+     * Create a painter.
+     *
+     * @param  className the fully qualified class name of the painter.
+     * @param  which     the state for the painter to paint, a value of the
+     *                   painter's Which enum.
+     *
+     * @return the painter, or null if the class is not one of the SeaGlass
+     *         painters.
+     */
+    public static SeaGlassPainter<?> createPainter(String className, Enum<?> which) {
+        Integer id = IDS.get(className);
+
+        if (id == null) {
+            return null;
+        }
+
+        switch (id) {
+
+        case 0:
+            return new ArrowButtonPainter((ArrowButtonPainter.Which) which);
+
+        case 1:
+            return new ButtonPainter((ButtonPainter.Which) which);
+
+        case 2:
+            return new CheckBoxMenuItemPainter((CheckBoxMenuItemPainter.Which) which);
+
+        case 3:
+            return new CheckBoxPainter((CheckBoxPainter.Which) which);
+
+        case 4:
+            return new ComboBoxArrowButtonPainter((ComboBoxArrowButtonPainter.Which) which);
+
+        case 5:
+            return new ComboBoxPainter((ComboBoxPainter.Which) which);
+
+        case 6:
+            return new ComboBoxTextFieldPainter((ComboBoxTextFieldPainter.Which) which);
+
+        case 7:
+            return new ContentPanePainter((ContentPanePainter.Which) which);
+
+        case 8:
+            return new DesktopIconPainter((DesktopIconPainter.Which) which);
+
+        case 9:
+            return new DesktopPanePainter((DesktopPanePainter.Which) which);
+
+        case 10:
+            return new FileChooserPainter((FileChooserPainter.Which) which);
+
+        case 11:
+            return new FrameAndRootPainter((FrameAndRootPainter.Which) which);
+
+        case 12:
+            return new MenuBarMenuPainter((MenuBarMenuPainter.Which) which);
+
+        case 13:
+            return new MenuItemPainter((MenuItemPainter.Which) which);
+
+        case 14:
+            return new MenuPainter((MenuPainter.Which) which);
+
+        case 15:
+            return new OptionPanePainter((OptionPanePainter.Which) which);
+
+        case 16:
+            return new PopupMenuPainter((PopupMenuPainter.Which) which);
+
+        case 17:
+            return new PopupMenuSeparatorPainter((PopupMenuSeparatorPainter.Which) which);
+
+        case 18:
+            return new ProgressBarPainter((ProgressBarPainter.Which) which);
+
+        case 19:
+            return new RadioButtonMenuItemPainter((RadioButtonMenuItemPainter.Which) which);
+
+        case 20:
+            return new RadioButtonPainter((RadioButtonPainter.Which) which);
+
+        case 21:
+            return new ScrollBarButtonPainter((ScrollBarButtonPainter.Which) which);
+
+        case 22:
+            return new ScrollBarThumbPainter((ScrollBarThumbPainter.Which) which);
+
+        case 23:
+            return new ScrollBarTrackPainter((ScrollBarTrackPainter.Which) which);
+
+        case 24:
+            return new ScrollPanePainter((ScrollPanePainter.Which) which);
+
+        case 25:
+            return new SearchFieldIconPainter((SearchFieldIconPainter.Which) which);
+
+        case 26:
+            return new SearchFieldPainter((SearchFieldPainter.Which) which);
+
+        case 27:
+            return new SeparatorPainter((SeparatorPainter.Which) which);
+
+        case 28:
+            return new SliderThumbPainter((SliderThumbPainter.Which) which);
+
+        case 29:
+            return new SliderTrackPainter((SliderTrackPainter.Which) which);
+
+        case 30:
+            return new SpinnerFormattedTextFieldPainter((SpinnerFormattedTextFieldPainter.Which) which);
+
+        case 31:
+            return new SpinnerNextButtonPainter((SpinnerNextButtonPainter.Which) which);
+
+        case 32:
+            return new SpinnerPreviousButtonPainter((SpinnerPreviousButtonPainter.Which) which);
+
+        case 33:
+            return new SplitPaneDividerPainter((SplitPaneDividerPainter.Which) which);
+
+        case 34:
+            return new SplitPanePainter((SplitPanePainter.Which) which);
+
+        case 35:
+            return new TabbedPaneTabAreaPainter((TabbedPaneTabAreaPainter.Which) which);
+
+        case 36:
+            return new TabbedPaneTabCloseButtonPainter((TabbedPaneTabCloseButtonPainter.Which) which);
+
+        case 37:
+            return new TabbedPaneTabPainter((TabbedPaneTabPainter.Which) which);
+
+        case 38:
+            return new TableHeaderPainter((TableHeaderPainter.Which) which);
+
+        case 39:
+            return new TableHeaderRendererPainter((TableHeaderRendererPainter.Which) which);
+
+        case 40:
+            return new TextComponentPainter((TextComponentPainter.Which) which);
+
+        case 41:
+            return new TitlePaneCloseButtonPainter((TitlePaneCloseButtonPainter.Which) which);
+
+        case 42:
+            return new TitlePaneIconifyButtonPainter((TitlePaneIconifyButtonPainter.Which) which);
+
+        case 43:
+            return new TitlePaneMaximizeButtonPainter((TitlePaneMaximizeButtonPainter.Which) which);
+
+        case 44:
+            return new TitlePaneMenuButtonPainter((TitlePaneMenuButtonPainter.Which) which);
+
+        case 45:
+            return new ToolBarHandlePainter((ToolBarHandlePainter.Which) which);
+
+        case 46:
+            return new ToolBarPainter((ToolBarPainter.Which) which);
+
+        case 47:
+            return new ToolBarToggleButtonPainter((ToolBarToggleButtonPainter.Which) which);
+
+        case 48:
+            return new ToolTipPainter((ToolTipPainter.Which) which);
+
+        case 49:
+            return new TreeCellEditorPainter((TreeCellEditorPainter.Which) which);
+
+        case 50:
+            return new TreeCellPainter((TreeCellPainter.Which) which);
+
+        case 51:
+            return new TreePainter((TreePainter.Which) which);
+        }
+
+        return null;
+    }
+}
@@ -24,12 +24,15 @@ import java.awt.RenderingHints;
 import java.awt.Shape;
 
 import javax.swing.JComponent;
+import javax.swing.JTabbedPane;
 
 import com.seaglasslookandfeel.effect.Effect;
 import com.seaglasslookandfeel.effect.SeaGlassDropShadowEffect;
 import com.seaglasslookandfeel.painter.AbstractRegionPainter.PaintContext.CacheMode;
 import com.seaglasslookandfeel.painter.util.ShapeGenerator.CornerSize;
 import com.seaglasslookandfeel.painter.util.ShapeGenerator.CornerStyle;
+import com.seaglasslookandfeel.ui.SeaGlassTabbedPaneUI;
+import com.seaglasslookandfeel.ui.SeaGlassTabbedPaneUI.TabState;
 
 /**
  * Button painter. This paints both regular and toggle buttons because they look
@@ -56,6 +59,11 @@ public final class TabbedPaneTabPainter extends AbstractCommonColorsPainter {
         NONE, FIRST, MIDDLE, LAST
     }
 
+    /** The extended cache keys for each segment type, by ordinal. */
+    private static final Object[][] SEGMENT_CACHE_KEYS = {
+        { SegmentType.NONE }, { SegmentType.FIRST }, { SegmentType.MIDDLE }, { SegmentType.LAST }
+    };
+
     private Effect dropShadow = new SeaGlassDropShadowEffect();
 
     private CommonControlState type;
@@ -98,9 +106,8 @@ public final class TabbedPaneTabPainter extends AbstractCommonColorsPainter {
      * {@inheritDoc}
      */
     protected Object[] getExtendedCacheKeys(JComponent c) {
-        Object[] extendedCacheKeys = new Object[] {};
-
-        return extendedCacheKeys;
+        // The state is already part of the painter, the segment is not.
+        return SEGMENT_CACHE_KEYS[getSegmentType(c).ordinal()];
     }
 
     /**
@@ -183,7 +190,8 @@ public final class TabbedPaneTabPainter extends AbstractCommonColorsPainter {
     }
 
     /**
-     * Get the segment type (if any) from the component's client properties.
+     * Get the segment type (if any) from the state of the tab being painted,
+     * or else from the component's client properties.
      *
      * @param  c the component.
      *
@@ -191,8 +199,13 @@ public final class TabbedPaneTabPainter extends AbstractCommonColorsPainter {
      */
     protected SegmentType getSegmentType(JComponent c) {
         SegmentType segmentType = SegmentType.NONE;
+        TabState    tab         = null;
+
+        if (c instanceof JTabbedPane && ((JTabbedPane) c).getUI() instanceof SeaGlassTabbedPaneUI) {
+            tab = ((SeaGlassTabbedPaneUI) ((JTabbedPane) c).getUI()).getPaintingTabState();
+        }
 
-        String position = (String) c.getClientProperty("JTabbedPane.Tab.segmentPosition");
+        String position = tab != null ? tab.getSegmentPosition() : (String) c.getClientProperty("JTabbedPane.Tab.segmentPosition");
 
         if ("first".equals(position)) {
             segmentType = SegmentType.FIRST;
@@ -20,7 +20,9 @@
 package com.seaglasslookandfeel.painter;
 
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.Graphics2D;
+import java.awt.Insets;
 import java.awt.Shape;
 
 import javax.swing.JComponent;
@@ -28,6 +30,7 @@ import javax.swing.JTextArea;
 import javax.swing.plaf.ColorUIResource;
 
 import com.seaglasslookandfeel.effect.SeaGlassInternalShadowEffect;
+import com.seaglasslookandfeel.painter.AbstractRegionPainter.PaintContext.CacheMode;
 import com.seaglasslookandfeel.painter.util.ShapeGenerator.CornerSize;
 
 /**
@@ -65,11 +68,18 @@ public final class TextComponentPainter extends AbstractCommonColorsPainter {
     public TextComponentPainter(Which state) {
         super();
         this.state = state;
-        this.ctx   = new PaintContext(AbstractRegionPainter.PaintContext.CacheMode.FIXED_SIZES);
 
         type    = (state == Which.BACKGROUND_DISABLED || state == Which.BACKGROUND_SOLID_DISABLED || state == Which.BORDER_DISABLED)
             ? CommonControlState.DISABLED : CommonControlState.ENABLED;
         focused = (state == Which.BORDER_FOCUSED);
+
+        if (state == Which.BORDER_DISABLED || state == Which.BORDER_ENABLED || state == Which.BORDER_FOCUSED) {
+
+            // The border only varies in its corners, so render it once and stretch it.
+            this.ctx = new PaintContext(CacheMode.NINE_SQUARE_SCALE, new Insets(8, 8, 8, 8), new Dimension(20, 20), false);
+        } else {
+            this.ctx = new PaintContext(CacheMode.FIXED_SIZES);
+        }
     }
 
     /**
@@ -112,13 +122,49 @@ public final class TextComponentPainter extends AbstractCommonColorsPainter {
     protected Object[] getExtendedCacheKeys(JComponent c) {
         Object[] extendedCacheKeys = null;
 
-        if (state == Which.BACKGROUND_ENABLED) {
-            extendedCacheKeys = new Object[] { getComponentColor(c, "background", defaultBackground, 0.0f, 0.0f, 0) };
+        switch (state) {
+
+        case BACKGROUND_ENABLED:
+            extendedCacheKeys = getBackgroundCacheKeys(c, getComponentColor(c, "background", defaultBackground, 0.0f, 0.0f, 0));
+            break;
+
+        case BACKGROUND_DISABLED:
+        case BACKGROUND_SELECTED:
+        case BACKGROUND_SOLID_DISABLED:
+        case BACKGROUND_SOLID_ENABLED:
+            extendedCacheKeys = getBackgroundCacheKeys(c, c.getBackground());
+            break;
+
+        case BORDER_DISABLED:
+        case BORDER_ENABLED:
+        case BORDER_FOCUSED:
+
+            // The border is rendered once for all sizes, but uses the tool bar colors in a tool bar.
+            extendedCacheKeys = new Object[] { isInToolBar(c) };
+            break;
         }
 
         return extendedCacheKeys;
     }
 
+    /**
+     * Get the cache keys of a background: its color, and whether line
+     * separators are painted. The separators depend on the line height and
+     * the insets of the component, so these are added when they are painted.
+     *
+     * @param  c     the component.
+     * @param  color the background color.
+     *
+     * @return the cache keys, with the color first.
+     */
+    private Object[] getBackgroundCacheKeys(JComponent c, Color color) {
+        if (!isPaintLineSeperators(c)) {
+            return new Object[] { color, Boolean.FALSE };
+        }
+
+        return new Object[] { color, Boolean.TRUE, c.getFontMetrics(c.getFont()).getHeight(), c.getInsets() };
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -23,6 +23,7 @@ import java.awt.Graphics2D;
 
 import javax.swing.JComponent;
 
+import com.seaglasslookandfeel.SeaGlassStyle;
 import com.seaglasslookandfeel.painter.AbstractCommonColorsPainter;
 import com.seaglasslookandfeel.painter.ButtonPainter.Which;
 
@@ -81,7 +82,11 @@ public abstract class ButtonVariantPainter extends AbstractCommonColorsPainter {
      * {@inheritDoc}
      */
     protected Object[] getExtendedCacheKeys(JComponent c) {
-        Object[] extendedCacheKeys = new Object[] {};
+        // The variant, segment, height and border all depend on these.
+        Object[] extendedCacheKeys = new Object[] {
+                c.getClientProperty("JButton.buttonType"), c.getClientProperty("JButton.segmentPosition"),
+                SeaGlassStyle.getSizeVariant(c), isInToolBar(c)
+            };
 
         return extendedCacheKeys;
     }
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2009 Kathryn Huxtable and Kenneth Orr.
+ *
+ * This file is part of the SeaGlass Pluggable Look and Feel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * $Id$
+ */
+package com.seaglasslookandfeel.painter.util;
+
+import java.awt.Color;
+import java.awt.LinearGradientPaint;
+import java.awt.MultipleGradientPaint;
+import java.awt.RadialGradientPaint;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import com.seaglasslookandfeel.util.LruMap;
+
+/**
+ * Shares gradient paints between paint operations. Painters which are not
+ * cached as images create their gradients on every paint, usually with the
+ * same geometry, fractions and colors as last time, so the most recently used
+ * gradients are kept and handed out again.
+ *
+ * <p>Gradients are immutable, so they may be shared freely. The colors are
+ * copied when a gradient is created, so that a derived color changing later
+ * does not change a gradient which is still cached under its old value.</p>
+ *
+ * @author Kathryn Huxtable
+ */
+public final class GradientCache {
+
+    /** The number of gradients kept. */
+    private static final int MAX_ENTRIES = 128;
+
+    private static final int LINEAR = 0;
+    private static final int RADIAL = 1;
+
+    /** The gradients, least recently used first. Guarded by itself. */
+    private static final Map<Key, MultipleGradientPaint> cache = new LruMap<Key, MultipleGradientPaint>(MAX_ENTRIES * 2, MAX_ENTRIES);
+
+    /** The key used for lookups, so that a hit allocates nothing. */
+    private static final Key probe = new Key();
+
+    /**
+     * Not to be instantiated.
+     */
+    private GradientCache() {
+    }
+
+    /**
+     * Get a linear gradient.
+     *
+     * @param  x1        the x coordinate of the start point.
+     * @param  y1        the y coordinate of the start point.
+     * @param  x2        the x coordinate of the end point.
+     * @param  y2        the y coordinate of the end point.
+     * @param  fractions the fractions of the colors along the gradient.
+     * @param  colors    the colors.
+     *
+     * @return the gradient.
+     */
+    public static LinearGradientPaint getLinearGradient(float x1, float y1, float x2, float y2, float[] fractions, Color[] colors) {
+        synchronized (cache) {
+            probe.setColors(colors);
+
+            return (LinearGradientPaint) get(LINEAR, x1, y1, x2, y2, fractions);
+        }
+    }
+
+    /**
+     * Get a linear gradient between two colors.
+     *
+     * @param  x1        the x coordinate of the start point.
+     * @param  y1        the y coordinate of the start point.
+     * @param  x2        the x coordinate of the end point.
+     * @param  y2        the y coordinate of the end point.
+     * @param  fractions the fractions of the colors along the gradient.
+     * @param  c1        the first color.
+     * @param  c2        the second color.
+     *
+     * @return the gradient.
+     */
+    public static LinearGradientPaint getLinearGradient(float x1, float y1, float x2, float y2, float[] fractions, Color c1, Color c2) {
+        synchronized (cache) {
+            probe.setColors(c1, c2, null, null, 2);
+
+            return (LinearGradientPaint) get(LINEAR, x1, y1, x2, y2, fractions);
+        }
+    }
+
+    /**
+     * Get a linear gradient between three colors.
+     *
+     * @param  x1        the x coordinate of the start point.
+     * @param  y1        the y coordinate of the start point.
+     * @param  x2        the x coordinate of the end point.
+     * @param  y2        the y coordinate of the end point.
+     * @param  fractions the fractions of the colors along the gradient.
+     * @param  c1        the first color.
+     * @param  c2        the second color.
+     * @param  c3        the third color.
+     *
+     * @return the gradient.
+     */
+    public static LinearGradientPaint getLinearGradient(float x1, float y1, float x2, float y2, float[] fractions, Color c1, Color c2,
+            Color c3) {
+        synchronized (cache) {
+            probe.setColors(c1, c2, c3, null, 3);
+
+            return (LinearGradientPaint) get(LINEAR, x1, y1, x2, y2, fractions);
+        }
+    }
+
+    /**
+     * Get a linear gradient between four colors.
+     *
+     * @param  x1        the x coordinate of the start point.
+     * @param  y1        the y coordinate of the start point.
+     * @param  x2        the x coordinate of the end point.
+     * @param  y2        the y coordinate of the end point.
+     * @param  fractions the fractions of the colors along the gradient.
+     * @param  c1        the first color.
+     * @param  c2        the second color.
+     * @param  c3        the third color.
+     * @param  c4        the fourth color.
+     *
+     * @return the gradient.
+     */
+    public static LinearGradientPaint getLinearGradient(float x1, float y1, float x2, float y2, float[] fractions, Color c1, Color c2,
+            Color c3, Color c4) {
+        synchronized (cache) {
+            probe.setColors(c1, c2, c3, c4, 4);
+
+            return (LinearGradientPaint) get(LINEAR, x1, y1, x2, y2, fractions);
+        }
+    }
+
+    /**
+     * Get a radial gradient.
+     *
+     * @param  x         the x coordinate of the center.
+     * @param  y         the y coordinate of the center.
+     * @param  r         the radius.
+     * @param  fractions the fractions of the colors along the gradient.
+     * @param  colors    the colors.
+     *
+     * @return the gradient.
+     */
+    public static RadialGradientPaint getRadialGradient(float x, float y, float r, float[] fractions, Color[] colors) {
+        synchronized (cache) {
+            probe.setColors(colors);
+
+            return (RadialGradientPaint) get(RADIAL, x, y, r, 0f, fractions);
+        }
+    }
+
+    /**
+     * Look up the gradient described by the probe and the arguments, creating
+     * and caching it if necessary. Must be called holding the cache lock.
+     *
+     * @param  type      LINEAR or RADIAL.
+     * @param  a         the first coordinate.
+     * @param  b         the second coordinate.
+     * @param  c         the third coordinate, or the radius.
+     * @param  d         the fourth coordinate, or 0.
+     * @param  fractions the fractions of the colors along the gradient.
+     *
+     * @return the gradient.
+     */
+    private static MultipleGradientPaint get(int type, float a, float b, float c, float d, float[] fractions) {
+        probe.set(type, a, b, c, d, fractions);
+
+        MultipleGradientPaint paint = cache.get(probe);
+
+        if (paint == null) {
+            Key     key    = probe.copy();
+            Color[] colors = new Color[key.count];
+
+            for (int i = 0; i < colors.length; i++) {
+                colors[i] = new Color(key.argb[i], true);
+            }
+
+            if (type == LINEAR) {
+                paint = new LinearGradientPaint(a, b, c, d, key.fractions, colors);
+            } else {
+                paint = new RadialGradientPaint(a, b, c, key.fractions, colors);
+            }
+
+            cache.put(key, paint);
+        }
+
+        return paint;
+    }
+
+    /**
+     * The description of a gradient.
+     */
+    private static final class Key {
+        private int     type;
+        private float   a;
+        private float   b;
+        private float   c;
+        private float   d;
+        private float[] fractions;
+        private int[]   argb = new int[4];
+        private int     count;
+        private int     hash;
+
+        /**
+         * Set the colors from an array.
+         *
+         * @param colors the colors.
+         */
+        void setColors(Color[] colors) {
+            if (argb.length < colors.length) {
+                argb = new int[colors.length];
+            }
+
+            for (int i = 0; i < colors.length; i++) {
+                argb[i] = colors[i].getRGB();
+            }
+
+            count = colors.length;
+        }
+
+        /**
+         * Set up to four colors.
+         *
+         * @param c1    the first color.
+         * @param c2    the second color.
+         * @param c3    the third color, if count is at least 3.
+         * @param c4    the fourth color, if count is 4.
+         * @param count the number of colors.
+         */
+        void setColors(Color c1, Color c2, Color c3, Color c4, int count) {
+            argb[0] = c1.getRGB();
+            argb[1] = c2.getRGB();
+
+            if (count > 2) {
+                argb[2] = c3.getRGB();
+            }
+
+            if (count > 3) {
+                argb[3] = c4.getRGB();
+            }
+
+            this.count = count;
+        }
+
+        /**
+         * Set the remaining fields and compute the hash code.
+         *
+         * @param type      LINEAR or RADIAL.
+         * @param a         the first coordinate.
+         * @param b         the second coordinate.
+         * @param c         the third coordinate, or the radius.
+         * @param d         the fourth coordinate, or 0.
+         * @param fractions the fractions of the colors along the gradient.
+         */
+        void set(int type, float a, float b, float c, float d, float[] fractions) {
+            this.type      = type;
+            this.a         = a;
+            this.b         = b;
+            this.c         = c;
+            this.d         = d;
+            this.fractions = fractions;
+
+            int h = type;
+
+            h = 31 * h + Float.floatToIntBits(a);
+            h = 31 * h + Float.floatToIntBits(b);
+            h = 31 * h + Float.floatToIntBits(c);
+            h = 31 * h + Float.floatToIntBits(d);
+            h = 31 * h + Arrays.hashCode(fractions);
+
+            for (int i = 0; i < count; i++) {
+                h = 31 * h + argb[i];
+            }
+
+            hash = h;
+        }
+
+        /**
+         * Copy the key, with arrays of its own, to be kept in the cache.
+         *
+         * @return the copy.
+         */
+        Key copy() {
+            Key key = new Key();
+
+            key.type      = type;
+            key.a         = a;
+            key.b         = b;
+            key.c         = c;
+            key.d         = d;
+            key.fractions = fractions.clone();
+            key.argb      = Arrays.copyOf(argb, count);
+            key.count     = count;
+            key.hash      = hash;
+
+            return key;
+        }
+
+        /**
+         * @see java.lang.Object#hashCode()
+         */
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+
+            if (hash != other.hash || type != other.type || count != other.count || Float.floatToIntBits(a) != Float.floatToIntBits(other.a)
+                    || Float.floatToIntBits(b) != Float.floatToIntBits(other.b) || Float.floatToIntBits(c) != Float.floatToIntBits(other.c)
+                    || Float.floatToIntBits(d) != Float.floatToIntBits(other.d) || !Arrays.equals(fractions, other.fractions)) {
+                return false;
+            }
+
+            for (int i = 0; i < count; i++) {
+                if (argb[i] != other.argb[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
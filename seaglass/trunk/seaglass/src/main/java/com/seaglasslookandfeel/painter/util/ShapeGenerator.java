@@ -19,17 +19,44 @@
  */
 package com.seaglasslookandfeel.painter.util;
 
+import java.awt.Rectangle;
 import java.awt.Shape;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+import java.util.Map;
+
+import com.seaglasslookandfeel.util.LruMap;
 
 /**
  * Return various shapes used by the Painter classes.
  *
+ * <p>The create methods reuse a single path per generator, so the shape they
+ * return is only valid until the next call. The static get methods return
+ * immutable shapes at the origin, shared between all callers, which may be
+ * held and compared by identity. Translate the graphics context to draw
+ * them elsewhere.</p>
+ *
  * @author Kathryn Huxtable
  */
 public class ShapeGenerator {
 
+    /** The number of shared shapes kept. */
+    private static final int MAX_SHARED_SHAPES = 256;
+
+    /** The shared shapes, least recently used first. Guarded by itself. */
+    private static final Map<ShapeKey, Shape> sharedShapes = new LruMap<ShapeKey, Shape>(MAX_SHARED_SHAPES * 2, MAX_SHARED_SHAPES);
+
+    /** The key used for lookups, so that a hit allocates nothing. */
+    private static final ShapeKey probe = new ShapeKey();
+
+    /** Creates the shared shapes. Guarded by sharedShapes. */
+    private static final ShapeGenerator sharedGenerator = new ShapeGenerator();
+
     /**
      * The base radius (arc size) for most control's borders. This is used to
      * calculate the rest of the arc sizes in a relative manner.
@@ -175,12 +202,192 @@ public class ShapeGenerator {
         }
     }
 
+    /**
+     * The kinds of shape which can be shared, see
+     * {@link ShapeGenerator#getShape(ShapeKind, int, int)}. Each is created
+     * by the create method of the same name. Round rectangles are shared
+     * through {@link ShapeGenerator#getRoundRectangle(int, int, CornerSize)}.
+     *
+     * <p>The cancel and tab close icons are not included, as their shape
+     * depends on where they are placed.</p>
+     */
+    public enum ShapeKind {
+
+        /** A rectangle with square corners. */
+        RECTANGLE,
+
+        /** A rectangle with square corners and no right side. */
+        OPEN_RECTANGLE,
+
+        /** A check mark. */
+        CHECK_MARK,
+
+        /** An arrow pointing to the left. */
+        ARROW_LEFT,
+
+        /** An arrow pointing to the right. */
+        ARROW_RIGHT,
+
+        /** An arrow pointing up. */
+        ARROW_UP,
+
+        /** An arrow pointing down. */
+        ARROW_DOWN,
+
+        /** An ellipse, e.g. a bullet or a radio button. */
+        ELLIPSE,
+
+        /** A scroll bar cap. */
+        SCROLL_CAP,
+
+        /** A scroll bar button placed apart from the other. */
+        SCROLL_BUTTON_APART,
+
+        /** A scroll bar decrease button placed together with the other. */
+        SCROLL_BUTTON_TOGETHER_DECREASE,
+    }
+
     /** Used for generic shapes. */
     private Path2D path = new Path2D.Double(Path2D.WIND_EVEN_ODD);
 
     /** Used for simple elliptical or circular shapes. */
     private Ellipse2D ellipse = new Ellipse2D.Float();
 
+    /**
+     * Return a shared, immutable shape at the origin.
+     *
+     * @param  kind the kind of shape.
+     * @param  w    the width of the shape.
+     * @param  h    the height of the shape.
+     *
+     * @return the shape.
+     */
+    public static Shape getShape(ShapeKind kind, int w, int h) {
+        return getSharedShape(kind, w, h, null, null, null, null, null);
+    }
+
+    /**
+     * Return a shared, immutable rectangle with rounded corners at the origin.
+     *
+     * @param  w    the width of the rectangle
+     * @param  h    the height of the rectangle
+     * @param  size the CornerSize value representing the amount of rounding
+     *
+     * @return the shape.
+     */
+    public static Shape getRoundRectangle(int w, int h, CornerSize size) {
+        return getRoundRectangle(w, h, size, CornerStyle.ROUNDED, CornerStyle.ROUNDED, CornerStyle.ROUNDED, CornerStyle.ROUNDED);
+    }
+
+    /**
+     * Return a shared, immutable rectangle with optionally rounded corners at
+     * the origin.
+     *
+     * @param  w           the width of the rectangle
+     * @param  h           the height of the rectangle
+     * @param  size        the CornerSize value representing the amount of
+     *                     rounding
+     * @param  topLeft     the CornerStyle of the upper-left corner.
+     * @param  bottomLeft  the CornerStyle of the lower-left corner.
+     * @param  bottomRight the CornerStyle of the lower-right corner.
+     * @param  topRight    the CornerStyle of the upper-right corner.
+     *
+     * @return the shape.
+     */
+    public static Shape getRoundRectangle(int w, int h, CornerSize size, CornerStyle topLeft, CornerStyle bottomLeft,
+            CornerStyle bottomRight, CornerStyle topRight) {
+        return getSharedShape(null, w, h, size, topLeft, bottomLeft, bottomRight, topRight);
+    }
+
+    /**
+     * Look up a shared shape, creating it if necessary.
+     *
+     * @param  kind        the kind of shape, or null for a round rectangle.
+     * @param  w           the width of the shape.
+     * @param  h           the height of the shape.
+     * @param  size        the rounding of a round rectangle, otherwise null.
+     * @param  topLeft     the upper-left corner of a round rectangle.
+     * @param  bottomLeft  the lower-left corner of a round rectangle.
+     * @param  bottomRight the lower-right corner of a round rectangle.
+     * @param  topRight    the upper-right corner of a round rectangle.
+     *
+     * @return the shape.
+     */
+    private static Shape getSharedShape(ShapeKind kind, int w, int h, CornerSize size, CornerStyle topLeft, CornerStyle bottomLeft,
+            CornerStyle bottomRight, CornerStyle topRight) {
+        synchronized (sharedShapes) {
+            probe.set(kind, w, h, size, topLeft, bottomLeft, bottomRight, topRight);
+
+            Shape shape = sharedShapes.get(probe);
+
+            if (shape == null) {
+                shape = new ImmutableShape(sharedGenerator.create(kind, w, h, size, topLeft, bottomLeft, bottomRight, topRight));
+                sharedShapes.put(probe.copy(), shape);
+            }
+
+            return shape;
+        }
+    }
+
+    /**
+     * Create a shape at the origin.
+     *
+     * @param  kind        the kind of shape, or null for a round rectangle.
+     * @param  w           the width of the shape.
+     * @param  h           the height of the shape.
+     * @param  size        the rounding of a round rectangle, otherwise null.
+     * @param  topLeft     the upper-left corner of a round rectangle.
+     * @param  bottomLeft  the lower-left corner of a round rectangle.
+     * @param  bottomRight the lower-right corner of a round rectangle.
+     * @param  topRight    the upper-right corner of a round rectangle.
+     *
+     * @return the shape, valid until the next call.
+     */
+    private Shape create(ShapeKind kind, int w, int h, CornerSize size, CornerStyle topLeft, CornerStyle bottomLeft,
+            CornerStyle bottomRight, CornerStyle topRight) {
+        if (kind == null) {
+            return createRoundRectangle(0, 0, w, h, size, topLeft, bottomLeft, bottomRight, topRight);
+        }
+
+        switch (kind) {
+
+        case RECTANGLE:
+            return createRectangle(0, 0, w, h);
+
+        case OPEN_RECTANGLE:
+            return createOpenRectangle(0, 0, w, h);
+
+        case CHECK_MARK:
+            return createCheckMark(0, 0, w, h);
+
+        case ARROW_LEFT:
+            return createArrowLeft(0, 0, w, h);
+
+        case ARROW_RIGHT:
+            return createArrowRight(0, 0, w, h);
+
+        case ARROW_UP:
+            return createArrowUp(0, 0, w, h);
+
+        case ARROW_DOWN:
+            return createArrowDown(0, 0, w, h);
+
+        case ELLIPSE:
+            return createEllipseInternal(0, 0, w, h);
+
+        case SCROLL_CAP:
+            return createScrollCap(0, 0, w, h);
+
+        case SCROLL_BUTTON_APART:
+            return createScrollButtonApart(0, 0, w, h);
+
+        case SCROLL_BUTTON_TOGETHER_DECREASE:
+            return createScrollButtonTogetherDecrease(0, 0, w, h);
+        }
+
+        throw new IllegalArgumentException("Unknown shape kind " + kind);
+    }
+
     /**
      * Return a path for a rectangle with square corners.
      *
@@ -844,4 +1051,146 @@ public class ShapeGenerator {
 
         return path;
     }
+
+    /**
+     * The description of a shared shape.
+     */
+    private static final class ShapeKey {
+        private ShapeKind   kind;
+        private int         w;
+        private int         h;
+        private CornerSize  size;
+        private CornerStyle topLeft;
+        private CornerStyle bottomLeft;
+        private CornerStyle bottomRight;
+        private CornerStyle topRight;
+        private int         hash;
+
+        /**
+         * Set the fields and compute the hash code.
+         *
+         * @param kind        the kind of shape, or null for a round rectangle.
+         * @param w           the width of the shape.
+         * @param h           the height of the shape.
+         * @param size        the rounding of a round rectangle, otherwise null.
+         * @param topLeft     the upper-left corner of a round rectangle.
+         * @param bottomLeft  the lower-left corner of a round rectangle.
+         * @param bottomRight the lower-right corner of a round rectangle.
+         * @param topRight    the upper-right corner of a round rectangle.
+         */
+        void set(ShapeKind kind, int w, int h, CornerSize size, CornerStyle topLeft, CornerStyle bottomLeft, CornerStyle bottomRight,
+                CornerStyle topRight) {
+            this.kind        = kind;
+            this.w           = w;
+            this.h           = h;
+            this.size        = size;
+            this.topLeft     = topLeft;
+            this.bottomLeft  = bottomLeft;
+            this.bottomRight = bottomRight;
+            this.topRight    = topRight;
+
+            int hash = kind == null ? -1 : kind.ordinal();
+
+            hash = 31 * hash + w;
+            hash = 31 * hash + h;
+            hash = 31 * hash + (size == null ? -1 : size.ordinal());
+            hash = 31 * hash + (topLeft == null ? -1 : topLeft.ordinal());
+            hash = 31 * hash + (bottomLeft == null ? -1 : bottomLeft.ordinal());
+            hash = 31 * hash + (bottomRight == null ? -1 : bottomRight.ordinal());
+            hash = 31 * hash + (topRight == null ? -1 : topRight.ordinal());
+
+            this.hash = hash;
+        }
+
+        /**
+         * Copy the key, to be kept in the cache.
+         *
+         * @return the copy.
+         */
+        ShapeKey copy() {
+            ShapeKey key = new ShapeKey();
+
+            key.set(kind, w, h, size, topLeft, bottomLeft, bottomRight, topRight);
+
+            return key;
+        }
+
+        /**
+         * @see java.lang.Object#hashCode()
+         */
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ShapeKey)) {
+                return false;
+            }
+
+            ShapeKey other = (ShapeKey) obj;
+
+            return hash == other.hash && kind == other.kind && w == other.w && h == other.h && size == other.size
+                && topLeft == other.topLeft && bottomLeft == other.bottomLeft && bottomRight == other.bottomRight
+                && topRight == other.topRight;
+        }
+    }
+
+    /**
+     * A read-only copy of a shape, so that it can be shared.
+     */
+    private static final class ImmutableShape implements Shape {
+        private final Shape shape;
+
+        /**
+         * Create a read-only copy of a shape.
+         *
+         * @param shape the shape to copy.
+         */
+        ImmutableShape(Shape shape) {
+            this.shape = shape instanceof Ellipse2D ? (Shape) ((Ellipse2D) shape).clone() : new Path2D.Double(shape);
+        }
+
+        public Rectangle getBounds() {
+            return shape.getBounds();
+        }
+
+        public Rectangle2D getBounds2D() {
+            return shape.getBounds2D();
+        }
+
+        public boolean contains(double x, double y) {
+            return shape.contains(x, y);
+        }
+
+        public boolean contains(Point2D p) {
+            return shape.contains(p);
+        }
+
+        public boolean intersects(double x, double y, double w, double h) {
+            return shape.intersects(x, y, w, h);
+        }
+
+        public boolean intersects(Rectangle2D r) {
+            return shape.intersects(r);
+        }
+
+        public boolean contains(double x, double y, double w, double h) {
+            return shape.contains(x, y, w, h);
+        }
+
+        public boolean contains(Rectangle2D r) {
+            return shape.contains(r);
+        }
+
+        public PathIterator getPathIterator(AffineTransform at) {
+            return shape.getPathIterator(at);
+        }
+
+        public PathIterator getPathIterator(AffineTransform at, double flatness) {
+            return shape.getPathIterator(at, flatness);
+        }
+    }
 }
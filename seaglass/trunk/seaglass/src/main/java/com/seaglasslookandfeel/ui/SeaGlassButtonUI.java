@@ -437,7 +437,12 @@ public class SeaGlassButtonUI extends BasicButtonUI implements PropertyChangeLis
      * @return DOCUMENT ME!
      */
     private Icon getSynthIcon(AbstractButton b, int synthConstant) {
-        return style.getIcon(getContext(b, synthConstant), getPropertyPrefix() + "icon");
+        SeaGlassContext context = getContext(b, synthConstant);
+        Icon            icon    = style.getIcon(context, getPropertyPrefix() + "icon");
+
+        context.dispose();
+
+        return icon;
     }
 
     /**
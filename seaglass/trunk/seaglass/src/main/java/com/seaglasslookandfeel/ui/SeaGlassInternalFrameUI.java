@@ -203,6 +203,7 @@ public class SeaGlassInternalFrameUI extends BasicInternalFrameUI implements Sea
             SeaGlassContext context = getContext(f, ENABLED);
             style.uninstallDefaults(context);
             ((SeaGlassStyle) style).installDefaults(context, this);
+            context.dispose();
         }
     }
 }
@@ -577,10 +577,13 @@ public class SeaGlassMenuItemUI extends BasicMenuItemUI implements PropertyChang
     protected void paint(SeaGlassContext context, Graphics g) {
         SeaGlassContext accContext = getContext(menuItem, Region.MENU_ITEM_ACCELERATOR);
 
+        SeaGlassContext iconContext = getContext(context.getComponent());
+
         String prefix = getPropertyPrefix();
-        Icon arIcon = style.getIcon(
-            getContext(context.getComponent()), prefix + ".arrowIcon");
-        paint(context, accContext, g, style.getIcon(getContext(context.getComponent()), prefix + ".checkIcon"), arIcon, true, acceleratorDelimiter, defaultTextIconGap);
+        Icon arIcon = style.getIcon(iconContext, prefix + ".arrowIcon");
+        Icon checkIcon = style.getIcon(iconContext, prefix + ".checkIcon");
+        iconContext.dispose();
+        paint(context, accContext, g, checkIcon, arIcon, true, acceleratorDelimiter, defaultTextIconGap);
         accContext.dispose();
     }
 
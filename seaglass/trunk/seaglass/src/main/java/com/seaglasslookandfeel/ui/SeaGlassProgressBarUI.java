@@ -29,11 +29,14 @@ import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.Insets;
 import java.awt.Point;
+import java.awt.PrintGraphics;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.Transparency;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.awt.print.PrinterGraphics;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 
@@ -80,6 +83,13 @@ public class SeaGlassProgressBarUI extends BasicProgressBarUI implements Seaglas
 
     private ShapeGenerator  shapeGenerator = new ShapeGenerator();
 
+    // the surface used for soft clipping, reused while the size is unchanged
+    private VolatileImage   scratchImage;
+    // the pre-rendered row or column of indeterminate tiles
+    private BufferedImage   tileStrip;
+    // the component state the tile strip was rendered in
+    private int             tileStripState;
+
     public static ComponentUI createUI(JComponent x) {
         return new SeaGlassProgressBarUI();
     }
@@ -113,6 +123,7 @@ public class SeaGlassProgressBarUI extends BasicProgressBarUI implements Seaglas
         tileWhenIndeterminate = style.getBoolean(context, "ProgressBar.tileWhenIndeterminate", false);
         trackThickness = style.getInt(context, "ProgressBar.trackThickness", 19);
         tileWidth = style.getInt(context, "ProgressBar.tileWidth", 15);
+        tileStrip = null;
         bgFillColor = (Color) style.get(context, "ProgressBar.backgroundFillColor");
         if (bgFillColor == null) {
             bgFillColor = Color.white;
@@ -159,6 +170,13 @@ public class SeaGlassProgressBarUI extends BasicProgressBarUI implements Seaglas
         style.uninstallDefaults(context);
         context.dispose();
         style = null;
+
+        if (scratchImage != null) {
+            scratchImage.flush();
+            scratchImage = null;
+        }
+
+        tileStrip = null;
     }
 
     public SeaGlassContext getContext(JComponent c) {
@@ -270,11 +288,45 @@ public class SeaGlassProgressBarUI extends BasicProgressBarUI implements Seaglas
             }
         }
 
-        // Create a translucent intermediate image in which we can perform soft
-        // clipping.
-        GraphicsConfiguration gc = ((Graphics2D) g).getDeviceConfiguration();
-        BufferedImage img = gc.createCompatibleImage(bounds.width, bounds.height, Transparency.TRANSLUCENT);
-        Graphics2D g2d = img.createGraphics();
+        if (bounds.width > 0 && bounds.height > 0) {
+            // Paint into a translucent intermediate image in which we can
+            // perform soft clipping.
+            GraphicsConfiguration gc = ((Graphics2D) g).getDeviceConfiguration();
+
+            if (g instanceof PrinterGraphics || g instanceof PrintGraphics) {
+                BufferedImage img = gc.createCompatibleImage(bounds.width, bounds.height, Transparency.TRANSLUCENT);
+
+                paintSoftClipped(context, img.createGraphics(), bounds, size, isFinished);
+                g.drawImage(img, bounds.x, bounds.y, null);
+            } else {
+                VolatileImage img;
+
+                do {
+                    img = getScratchImage(gc, bounds.width, bounds.height);
+                    paintSoftClipped(context, img.createGraphics(), bounds, size, isFinished);
+                    g.drawImage(img, bounds.x, bounds.y, null);
+                } while (img.contentsLost());
+            }
+        }
+
+        if (pBar.isStringPainted()) {
+            paintText(context, g, pBar.getString());
+        }
+    }
+
+    /**
+     * Paint the track and progress indicator, soft clipped to the rounded
+     * track shape, into an intermediate image.
+     *
+     * @param context    the context.
+     * @param g2d        the graphics for the intermediate image. This is
+     *                   disposed of.
+     * @param bounds     the bounds of the progress indicator.
+     * @param size       the size of the progress indicator.
+     * @param isFinished whether the progress is complete.
+     */
+    private void paintSoftClipped(SeaGlassContext context, Graphics2D g2d, Rectangle bounds, int size, boolean isFinished) {
+        JProgressBar pBar = (JProgressBar) context.getComponent();
 
         // Clear the image so all pixels have zero alpha
         g2d.setComposite(AlphaComposite.Clear);
@@ -300,14 +352,73 @@ public class SeaGlassProgressBarUI extends BasicProgressBarUI implements Seaglas
             savedRect.height, pBar.getOrientation());
         paintProgressIndicator(context, g2d, bounds.width, bounds.height, size, isFinished);
 
-        // Dispose of the image graphics and copy our intermediate image to the
-        // main graphics.
         g2d.dispose();
-        g.drawImage(img, bounds.x, bounds.y, null);
+    }
 
-        if (pBar.isStringPainted()) {
-            paintText(context, g, pBar.getString());
+    /**
+     * Get the intermediate image used for soft clipping, creating it if it
+     * doesn't exist, is the wrong size, or can no longer be used with the
+     * graphics configuration.
+     *
+     * @param  gc     the graphics configuration being painted to.
+     * @param  width  the width needed.
+     * @param  height the height needed.
+     *
+     * @return the intermediate image.
+     */
+    private VolatileImage getScratchImage(GraphicsConfiguration gc, int width, int height) {
+        if (scratchImage == null || scratchImage.getWidth() != width || scratchImage.getHeight() != height
+                || scratchImage.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+            if (scratchImage != null) {
+                scratchImage.flush();
+            }
+
+            scratchImage = gc.createCompatibleVolatileImage(width, height, Transparency.TRANSLUCENT);
         }
+
+        return scratchImage;
+    }
+
+    /**
+     * Get a strip of indeterminate tiles long enough to cover the progress
+     * indicator at any animation offset, painting it if the size, orientation
+     * or component state has changed. Each animation frame is then a single
+     * image copy.
+     *
+     * @param  context the context.
+     * @param  gc      the graphics configuration being painted to.
+     * @param  width   the width of the progress indicator.
+     * @param  height  the height of the progress indicator.
+     *
+     * @return the tile strip.
+     */
+    private BufferedImage getTileStrip(SeaGlassContext context, GraphicsConfiguration gc, int width, int height) {
+        JProgressBar pBar        = (JProgressBar) context.getComponent();
+        int          orientation = pBar.getOrientation();
+        int          stripWidth  = orientation == JProgressBar.HORIZONTAL ? width + tileWidth * 2 : width;
+        int          stripHeight = orientation == JProgressBar.HORIZONTAL ? height : height + tileWidth * 2;
+
+        if (tileStrip == null || tileStrip.getWidth() != stripWidth || tileStrip.getHeight() != stripHeight
+                || tileStripState != context.getComponentState()) {
+            tileStrip      = gc.createCompatibleImage(stripWidth, stripHeight, Transparency.TRANSLUCENT);
+            tileStripState = context.getComponentState();
+
+            Graphics2D g2d = tileStrip.createGraphics();
+
+            if (orientation == JProgressBar.HORIZONTAL) {
+                for (int i = 0; i < stripWidth; i += tileWidth) {
+                    context.getPainter().paintProgressBarForeground(context, g2d, i, 0, tileWidth, height, orientation);
+                }
+            } else {
+                for (int i = 0; i < stripHeight; i += tileWidth) {
+                    context.getPainter().paintProgressBarForeground(context, g2d, 0, i, width, tileWidth, orientation);
+                }
+            }
+
+            g2d.dispose();
+        }
+
+        return tileStrip;
     }
 
     /**
@@ -324,22 +435,23 @@ public class SeaGlassProgressBarUI extends BasicProgressBarUI implements Seaglas
         JProgressBar pBar = (JProgressBar) context.getComponent();
 
         if (tileWhenIndeterminate && pBar.isIndeterminate()) {
+            if (tileWidth <= 0) {
+                return;
+            }
+
             double offsetFraction = (double) getAnimationIndex() / (double) getFrameCount();
             int offset = (int) (offsetFraction * tileWidth);
+            BufferedImage strip = getTileStrip(context, g2d.getDeviceConfiguration(), width, height);
             if (pBar.getOrientation() == JProgressBar.HORIZONTAL) {
                 // If we're right-to-left, flip the direction of animation.
                 if (!SeaGlassLookAndFeel.isLeftToRight(pBar)) {
                     offset = tileWidth - offset;
                 }
-                // paint each tile horizontally
-                for (int i = -tileWidth + offset; i <= width; i += tileWidth) {
-                    context.getPainter().paintProgressBarForeground(context, g2d, i, 0, tileWidth, height, pBar.getOrientation());
-                }
+                // paint the tiles horizontally
+                g2d.drawImage(strip, -tileWidth + offset, 0, null);
             } else {
-                // paint each tile vertically
-                for (int i = -offset; i < height + tileWidth; i += tileWidth) {
-                    context.getPainter().paintProgressBarForeground(context, g2d, 0, i, width, tileWidth, pBar.getOrientation());
-                }
+                // paint the tiles vertically
+                g2d.drawImage(strip, 0, -offset, null);
             }
         } else {
             if (pBar.getOrientation() == JProgressBar.HORIZONTAL) {
@@ -33,7 +33,6 @@ import java.awt.LayoutManager;
 import java.awt.LayoutManager2;
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.awt.Shape;
 import java.awt.Toolkit;
 import java.awt.Window;
 import java.awt.event.ComponentAdapter;
@@ -65,9 +64,6 @@ import com.seaglasslookandfeel.component.SeaGlassBorder;
 import com.seaglasslookandfeel.component.SeaGlassTitlePane;
 import com.seaglasslookandfeel.painter.ContentPanePainter;
 import com.seaglasslookandfeel.painter.SeaGlassPainter;
-import com.seaglasslookandfeel.painter.util.ShapeGenerator;
-import com.seaglasslookandfeel.painter.util.ShapeGenerator.CornerSize;
-import com.seaglasslookandfeel.painter.util.ShapeGenerator.CornerStyle;
 import com.seaglasslookandfeel.state.RootPaneWindowFocusedState;
 import com.seaglasslookandfeel.state.State;
 import com.seaglasslookandfeel.util.PlatformUtils;
@@ -480,12 +476,7 @@ public class SeaGlassRootPaneUI extends BasicRootPaneUI implements SeaglassUI {
              */
             @Override
             public void componentResized(ComponentEvent e) {
-                ShapeGenerator shapeGenerator = new ShapeGenerator();
-                int width = e.getComponent().getWidth();
-                int height = e.getComponent().getHeight();
-                Shape s = shapeGenerator.createRoundRectangle(0, 0, width, height, CornerSize.FRAME_INNER_HIGHLIGHT,
-                    CornerStyle.ROUNDED, CornerStyle.SQUARE, CornerStyle.SQUARE, CornerStyle.ROUNDED);
-                WindowUtils.setWindowShape(window, s);
+                WindowUtils.setWindowShapeLater(window, e.getComponent().getSize());
             }
         });
     }
@@ -704,7 +704,7 @@ public class SeaGlassSliderUI extends BasicSliderUI implements PropertyChangeLis
 
     private SeaGlassContext getContext(JComponent c, Region subregion, int state) {
         SynthStyle style = null;
-        Class klass = SeaGlassContext.class;
+        Class<? extends SeaGlassContext> klass = SeaGlassContext.class;
 
         if (subregion == Region.SLIDER_TRACK) {
             style = sliderTrackStyle;
@@ -262,6 +262,7 @@ public class SeaGlassSpinnerUI extends BasicSpinnerUI
             SeaGlassContext context = getContext(spinner);
             Integer alignment = (Integer)context.getStyle().get(
                     context, "Spinner.editorAlignment");
+            context.dispose();
             JTextField text = ((JSpinner.DefaultEditor)editor).getTextField();
             if (alignment != null) {
                 text.setHorizontalAlignment(alignment);
@@ -40,6 +40,9 @@ import java.awt.event.MouseMotionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import javax.swing.ButtonModel;
 import javax.swing.Icon;
 import javax.swing.JButton;
@@ -92,6 +95,15 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
 
     private boolean selectedTabIsPressed = false;
 
+    /** The tab being painted, read by the tab painter. */
+    private final TabState paintingTab = new TabState();
+
+    /** The widths of the plain text tab titles, measured in titleWidthsFont. */
+    private final Map<String, Integer> titleWidths = new HashMap<String, Integer>();
+
+    /** The font the titles in titleWidths were measured in. */
+    private Font titleWidthsFont;
+
     /**
      * Actions to be performed when tab close button is pressed and when tab is
      * actually closed.
@@ -282,6 +294,7 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
         tabContext    = getContext(c, Region.TABBED_PANE_TAB, ENABLED);
         this.tabStyle = SeaGlassLookAndFeel.updateStyle(tabContext, this);
         tabInsets     = tabStyle.getInsets(tabContext, null);
+        titleWidths.clear();
 
         if (tabCloseContext != null) {
             tabCloseContext.dispose();
@@ -439,8 +452,8 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
      * @return the newly created SynthContext.
      */
     private SeaGlassContext getContext(JComponent c, Region subregion, int state) {
-        SynthStyle style = null;
-        Class      klass = SeaGlassContext.class;
+        SynthStyle                       style = null;
+        Class<? extends SeaGlassContext> klass = SeaGlassContext.class;
 
         if (subregion == Region.TABBED_PANE_TAB) {
             style = tabStyle;
@@ -714,10 +727,9 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
      * @param textRect the bounds in which to paint the tab text, if any.
      */
     protected void paintTab(SeaGlassContext ss, Graphics g, Rectangle[] rects, int tabIndex, Rectangle iconRect, Rectangle textRect) {
-        Rectangle  tabRect       = rects[tabIndex];
-        int        selectedIndex = tabPane.getSelectedIndex();
-        boolean    isSelected    = selectedIndex == tabIndex;
-        JComponent b             = ss.getComponent();
+        Rectangle tabRect       = rects[tabIndex];
+        int       selectedIndex = tabPane.getSelectedIndex();
+        boolean   isSelected    = selectedIndex == tabIndex;
 
         boolean flipSegments    = (orientation == ControlOrientation.HORIZONTAL && !tabPane.getComponentOrientation().isLeftToRight());
         String  segmentPosition = "only";
@@ -732,9 +744,9 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
             }
         }
 
-        b.putClientProperty("JTabbedPane.Tab.segmentPosition", segmentPosition);
         updateTabContext(tabIndex, isSelected, isSelected && selectedTabIsPressed, getRolloverTab() == tabIndex,
                          getFocusIndex() == tabIndex);
+        paintingTab.set(segmentPosition);
 
         SeaGlassLookAndFeel.updateSubregion(ss, g, tabRect);
 
@@ -750,6 +762,8 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
             tabRect = paintCloseButton(g, tabContext, tabIndex);
         }
 
+        paintingTab.clear();
+
         if (tabPane.getTabComponentAt(tabIndex) == null) {
             String      title   = tabPane.getTitleAt(tabIndex);
             Font        font    = ss.getStyle().getFont(ss);
@@ -817,18 +831,17 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
 
         SeaGlassLookAndFeel.updateSubregion(ss, g, tabRect);
 
-        tabPane.putClientProperty("JTabbedPane.Tab.segmentPosition",
-                                  ((scrollButton == scrollBackwardButton) ^ flipSegments) ? "first" : "last");
-
         int         oldState    = tabContext.getComponentState();
         ButtonModel model       = scrollButton.getModel();
         int         isPressed   = model.isPressed() && model.isArmed() ? PRESSED : 0;
         int         buttonState = SeaGlassLookAndFeel.getComponentState(scrollButton) | isPressed;
 
+        paintingTab.set(((scrollButton == scrollBackwardButton) ^ flipSegments) ? "first" : "last");
         tabContext.setComponentState(buttonState);
         tabContext.getPainter().paintTabbedPaneTabBackground(tabContext, g, x, y, width, height, -1, tabPlacement);
         tabContext.getPainter().paintTabbedPaneTabBorder(tabContext, g, x, y, width, height, -1, tabPlacement);
         tabContext.setComponentState(oldState);
+        paintingTab.clear();
     }
 
     /**
@@ -995,7 +1008,7 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
         if (tabComponent != null) {
             width += tabComponent.getPreferredSize().width;
             if (tabIndex < rects.length && tabCloseButtonPlacement != CENTER) {
-                width += getCloseButtonBounds(tabIndex).width + textIconGap;
+                width += closeButtonSize + textIconGap;
             }
         } else {
             if (icon != null) {
@@ -1004,7 +1017,7 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
 
             // Hack to prevent array index out of bounds before the size has been set and the rectangles created.
             if (tabIndex < rects.length && tabCloseButtonPlacement != CENTER) {
-                width += getCloseButtonBounds(tabIndex).width + textIconGap;
+                width += closeButtonSize + textIconGap;
             }
 
             View v = getTextViewForTab(tabIndex);
@@ -1014,16 +1027,50 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
                 width += (int) v.getPreferredSpan(View.X_AXIS);
             } else {
                 // plain text
-                String title = tabPane.getTitleAt(tabIndex);
-
-                width += tabContext.getStyle().getGraphicsUtils(tabContext).computeStringWidth(tabContext, metrics.getFont(), metrics,
-                                                                                               title);
+                width += getTitleWidth(tabPane.getTitleAt(tabIndex), metrics);
             }
         }
 
         return width;
     }
 
+    /**
+     * Get the width of a plain text tab title.
+     *
+     * <p>Every layout measures every tab, and a pane is laid out again
+     * whenever a tab is added, removed or selected, so with hundreds of tabs
+     * measuring the titles dominates. The widths are kept by title, so only
+     * new or changed titles are measured, whatever their tabs' indices. They
+     * are discarded when the font or the style changes.</p>
+     *
+     * @param  title   the title.
+     * @param  metrics the font metrics to measure it with.
+     *
+     * @return the width of the title.
+     */
+    private int getTitleWidth(String title, FontMetrics metrics) {
+        if (title == null) {
+            return 0;
+        }
+
+        Font font = metrics.getFont();
+
+        // Titles of closed tabs and old titles are dropped the same way.
+        if (!font.equals(titleWidthsFont) || titleWidths.size() > 2 * tabPane.getTabCount() + 32) {
+            titleWidths.clear();
+            titleWidthsFont = font;
+        }
+
+        Integer width = titleWidths.get(title);
+
+        if (width == null) {
+            width = tabContext.getStyle().getGraphicsUtils(tabContext).computeStringWidth(tabContext, font, metrics, title);
+            titleWidths.put(title, width);
+        }
+
+        return width;
+    }
+
     /**
      * @see javax.swing.plaf.basic.BasicTabbedPaneUI#calculateMaxTabWidth(int)
      */
@@ -1093,8 +1140,8 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
         } else if (isMouseOver) {
             state |= (SynthConstants.ENABLED | SynthConstants.MOUSE_OVER);
         } else {
-            state =  SeaGlassLookAndFeel.getComponentState(tabPane);
-            state &= ~SynthConstants.FOCUSED; // Don't use tabbedpane focus state.
+            // The tabbed pane is enabled, and its focus state is not used.
+            state = SynthConstants.ENABLED;
         }
 
         if (hasFocus && tabPane.hasFocus()) {
@@ -1194,6 +1241,51 @@ public class SeaGlassTabbedPaneUI extends BasicTabbedPaneUI implements SeaglassU
         }
     }
 
+    /**
+     * Returns the state of the tab, or tab scroll button, being painted. The
+     * tab painter reads it directly rather than through client properties,
+     * whose changes would fire property change events for every tab painted.
+     *
+     * @return the state, or {@code null} if no tab is being painted.
+     */
+    public TabState getPaintingTabState() {
+        return paintingTab.segmentPosition == null ? null : paintingTab;
+    }
+
+    /**
+     * The state of a tab while it is painted which its SynthContext does not
+     * hold. Rollover and pressed are part of the context's component state.
+     */
+    public static final class TabState {
+        private String segmentPosition;
+
+        /**
+         * Set the state of the tab about to be painted.
+         *
+         * @param segmentPosition the segment position.
+         */
+        void set(String segmentPosition) {
+            this.segmentPosition = segmentPosition;
+        }
+
+        /**
+         * Clear the state once the tab has been painted.
+         */
+        void clear() {
+            segmentPosition = null;
+        }
+
+        /**
+         * Returns the position of the tab among the tabs, as used for
+         * segmented buttons.
+         *
+         * @return "first", "middle", "last" or "only".
+         */
+        public String getSegmentPosition() {
+            return segmentPosition;
+        }
+    }
+
     /**
      * The scrollable tab button.
      */
@@ -19,13 +19,20 @@
  */
 package com.seaglasslookandfeel.ui;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.Composite;
 import java.awt.Container;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.TexturePaint;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.text.DateFormat;
@@ -94,6 +101,14 @@ public class SeaGlassTableUI extends BasicTableUI implements SeaglassUI, Propert
     // The background color to use for cells for alternate cells.
     private Color   alternateColor;
 
+    // Two rows of stripes and horizontal grid lines, for tables whose rows all
+    // have the same height. Rebuilt when the height or the colors change.
+    private BufferedImage stripeTile;
+    private int           stripeTileRowHeight;
+    private int           stripeTileEven;
+    private int           stripeTileOdd;
+    private int           stripeTileGrid;
+
     private Color             selectionActiveBottomBorderColor;
     private Color             selectionInactiveBottomBorderColor;
     private Color             transparentColor;
@@ -485,82 +500,237 @@ public class SeaGlassTableUI extends BasicTableUI implements SeaglassUI, Propert
     }
 
     /**
-     * Paint the stripes and grid.
+     * Paint the stripes and grid. Rows past the end of the table are painted
+     * at the table's row height, so that the stripes fill the viewport. Only
+     * the rows intersecting the clip are painted.
      *
      * @param context the Synth context.
      * @param g       the Graphics context.
      * @param c       the component.
      * @param width   the width of the table.
      * @param height  the height of the table.
-     * @param top     the top row to paint (for viewports).
+     * @param top     the y coordinate of the table's first row (for
+     *                viewports).
      */
     public void paintStripesAndGrid(SeaGlassContext context, Graphics g, JComponent c, int width, int height, int top) {
-        int rh  = table.getRowHeight();
-        int n   = table.getRowCount();
-        int row = Math.abs(top / rh);
-        // if (true) return;
-
-        // TableCellRenderer renderer =
-        // table.getDefaultRenderer(java.lang.Object.class);
-
-        // Paint the background, including stripes if requested.
-        if (alternateColor != null) {
-            // Fill the viewport with background color.
-        	// Rossi: Ugly broken hack to make the first column white instead of blue.
-        	// To see how the new blue table headers look like.
-        	// This is should be done by modifying the "for loop" instead.
-            g.setColor(alternateColor);
-            g.fillRect(0, 0, width, height);
-
-            // Now check if we need to paint some stripes
-            g.setColor(table.getBackground());
-
-            // Paint table rows to fill the viewport.
-            for (int y = top + row * rh, ymax = height; y < ymax; y += rh) {
-                if (row % 2 == 0) {
-                    g.fillRect(0, y, width, rh);
-                }
+        Rectangle clip = g.getClipBounds();
+        int       minX = 0;
+        int       minY = 0;
+        int       maxX = width;
+        int       maxY = height;
+
+        if (clip != null) {
+            minX = Math.max(minX, clip.x);
+            minY = Math.max(minY, clip.y);
+            maxX = Math.min(maxX, clip.x + clip.width);
+            maxY = Math.min(maxY, clip.y + clip.height);
+        }
 
-                row++;
-            }
-        } else {
-            // Fill the viewport with the background color of the table
-            g.setColor(table.getBackground());
-            g.fillRect(0, 0, c.getWidth(), c.getHeight());
+        if (minX >= maxX || minY >= maxY) {
+            return;
         }
 
-        SynthGraphicsUtils synthG = context.getStyle().getGraphicsUtils(context);
+        int   rh         = table.getRowHeight();
+        int   n          = table.getRowCount();
+        int   rowsHeight = getRowsHeight(n);
+        int   row        = getRowAt(minY - top, rh, n, rowsHeight);
+        int   rowY       = top + getRowY(row, rh, n, rowsHeight);
+        Color background = table.getBackground();
+        Color odd        = alternateColor != null ? alternateColor : background;
+
+        // Above the first row there is nothing but the background.
+        if (rowY > minY) {
+            g.setColor(odd);
+            g.fillRect(minX, minY, maxX - minX, Math.min(rowY, maxY) - minY);
+        }
 
-        // Paint the horizontal grid lines
-        if (table.getShowHorizontalLines()) {
-            g.setColor(table.getGridColor());
-            row = Math.abs(top / rh);
-            int y = top + row * rh + rh - 1;
+        boolean showHorizontalLines = table.getShowHorizontalLines();
+
+        if (rowY < maxY && !paintStripeTile(g, minX, rowY, maxX, maxY, row, rh, n, background, odd, showHorizontalLines)) {
+            SynthGraphicsUtils synthG = context.getStyle().getGraphicsUtils(context);
+
+            for (int r = row, y = rowY; y < maxY; r++) {
+                int h = r < n ? table.getRowHeight(r) : rh;
 
-            while (y < height) {
-                synthG.drawLine(context, "Table.grid", g, 0, y, width, y);
-                y += rh;
+                // Paint the background, including stripes if requested.
+                g.setColor(r % 2 == 0 ? background : odd);
+                g.fillRect(minX, y, maxX - minX, h);
+
+                // Paint the horizontal grid line.
+                if (showHorizontalLines && y + h - 1 < maxY) {
+                    g.setColor(table.getGridColor());
+                    synthG.drawLine(context, "Table.grid", g, minX, y + h - 1, maxX, y + h - 1);
+                }
+
+                y += h;
             }
         }
 
         // Paint the vertical grid lines
         if (table.getShowVerticalLines()) {
-            g.setColor(table.getGridColor());
-            TableColumnModel cm = table.getColumnModel();
+            SynthGraphicsUtils synthG = context.getStyle().getGraphicsUtils(context);
+            TableColumnModel   cm     = table.getColumnModel();
+            int                x      = -1;
 
-            n = cm.getColumnCount();
-            int y = top + row * rh;
-
-            ;
-            int x = -1;
+            g.setColor(table.getGridColor());
 
-            for (int i = 0; i < n; i++) {
+            for (int i = 0, columns = cm.getColumnCount(); i < columns && x < maxX; i++) {
                 TableColumn col = cm.getColumn(i);
 
                 x += col.getWidth();
-                synthG.drawLine(context, "Table.grid", g, x, y, x, height);
+                if (x >= minX && x < maxX) {
+                    synthG.drawLine(context, "Table.grid", g, x, Math.min(rowY, minY), x, maxY);
+                }
+            }
+        }
+    }
+
+    /**
+     * Paint the stripes and horizontal grid lines of rows of equal height with
+     * a pre-rendered tile of two rows, in a single fill. This is only done when
+     * filling with the tile gives exactly the same result as painting the rows
+     * one by one.
+     *
+     * @param  g                   the Graphics context.
+     * @param  minX                the left of the area to paint.
+     * @param  rowY                the y coordinate of the first row to paint.
+     * @param  maxX                the right of the area to paint.
+     * @param  maxY                the bottom of the area to paint.
+     * @param  row                 the first row to paint.
+     * @param  rh                  the table's row height.
+     * @param  n                   the number of rows in the table.
+     * @param  even                the color of the even rows.
+     * @param  odd                 the color of the odd rows.
+     * @param  showHorizontalLines whether to paint the horizontal grid lines.
+     *
+     * @return {@code true} if the rows were painted, {@code false} if they have
+     *         to be painted one by one.
+     */
+    private boolean paintStripeTile(Graphics g, int minX, int rowY, int maxX, int maxY, int row, int rh, int n, Color even, Color odd,
+            boolean showHorizontalLines) {
+        if (!(g instanceof Graphics2D)) {
+            return false;
+        }
+
+        Graphics2D g2        = (Graphics2D) g;
+        Composite  composite = g2.getComposite();
+        Color      grid      = showHorizontalLines ? table.getGridColor() : even;
+
+        if ((g2.getTransform().getType() & ~AffineTransform.TYPE_TRANSLATION) != 0
+                || g2.getRenderingHint(RenderingHints.KEY_ANTIALIASING) == RenderingHints.VALUE_ANTIALIAS_ON
+                || !AlphaComposite.SrcOver.equals(composite) || even.getAlpha() != 255 || odd.getAlpha() != 255
+                || grid.getAlpha() != 255) {
+            return false;
+        }
+
+        for (int r = row, y = rowY; y < maxY && r < n; r++) {
+            if (table.getRowHeight(r) != rh) {
+                return false;
+            }
+
+            y += rh;
+        }
+
+        BufferedImage tile = getStripeTile(rh, even.getRGB(), odd.getRGB(), showHorizontalLines ? grid.getRGB() : 0);
+        int           y0   = rowY - (row % 2) * rh;
+
+        g2.setPaint(new TexturePaint(tile, new Rectangle(0, y0, 1, 2 * rh)));
+        g2.fillRect(minX, rowY, maxX - minX, maxY - rowY);
+
+        return true;
+    }
+
+    /**
+     * Get the tile for two rows, an even one and an odd one, each ending with
+     * a horizontal grid line if there is a grid color.
+     *
+     * @param  rh   the row height.
+     * @param  even the RGB value of the even rows.
+     * @param  odd  the RGB value of the odd rows.
+     * @param  grid the RGB value of the grid, or 0 for no horizontal lines.
+     *
+     * @return the tile.
+     */
+    private BufferedImage getStripeTile(int rh, int even, int odd, int grid) {
+        if (stripeTile == null || stripeTileRowHeight != rh || stripeTileEven != even || stripeTileOdd != odd
+                || stripeTileGrid != grid) {
+            BufferedImage tile = new BufferedImage(1, 2 * rh, BufferedImage.TYPE_INT_RGB);
+
+            for (int y = 0; y < rh; y++) {
+                tile.setRGB(0, y, even);
+                tile.setRGB(0, rh + y, odd);
+            }
+
+            if (grid != 0) {
+                tile.setRGB(0, rh - 1, grid);
+                tile.setRGB(0, 2 * rh - 1, grid);
             }
+
+            stripeTile          = tile;
+            stripeTileRowHeight = rh;
+            stripeTileEven      = even;
+            stripeTileOdd       = odd;
+            stripeTileGrid      = grid;
+        }
+
+        return stripeTile;
+    }
+
+    /**
+     * Get the height of all the rows of the table.
+     *
+     * @param  n the number of rows.
+     *
+     * @return the height.
+     */
+    private int getRowsHeight(int n) {
+        if (n == 0) {
+            return 0;
         }
+
+        Rectangle last = table.getCellRect(n - 1, 0, true);
+
+        return last.y + last.height;
+    }
+
+    /**
+     * Get the row at a y coordinate, counting rows past the end of the table
+     * as having the table's row height.
+     *
+     * @param  y          the y coordinate, relative to the first row.
+     * @param  rh         the table's row height.
+     * @param  n          the number of rows.
+     * @param  rowsHeight the height of all the rows of the table.
+     *
+     * @return the row.
+     */
+    private int getRowAt(int y, int rh, int n, int rowsHeight) {
+        if (y < 0) {
+            return 0;
+        } else if (y < rowsHeight) {
+            return table.rowAtPoint(new Point(0, y));
+        }
+
+        return n + (y - rowsHeight) / rh;
+    }
+
+    /**
+     * Get the y coordinate of a row, counting rows past the end of the table
+     * as having the table's row height.
+     *
+     * @param  row        the row.
+     * @param  rh         the table's row height.
+     * @param  n          the number of rows.
+     * @param  rowsHeight the height of all the rows of the table.
+     *
+     * @return the y coordinate, relative to the first row.
+     */
+    private int getRowY(int row, int rh, int n, int rowsHeight) {
+        if (row < n) {
+            return table.getCellRect(row, 0, true).y;
+        }
+
+        return rowsHeight + (row - n) * rh;
     }
 
     /**
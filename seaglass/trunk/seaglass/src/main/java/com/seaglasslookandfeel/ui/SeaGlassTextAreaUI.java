@@ -132,6 +132,7 @@ public class SeaGlassTextAreaUI extends BasicTextAreaUI implements SeaglassUI, F
         SeaGlassContext context = getContext(c);
         context.getPainter().paintTextAreaBackground(context,
             g, 0, 0, c.getWidth(), c.getHeight());
+        context.dispose();
    }
 
     public void paintBorder(SynthContext context, Graphics g, int x,
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2009 Kathryn Huxtable and Kenneth Orr.
+ *
+ * This file is part of the SeaGlass Pluggable Look and Feel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * $Id$
+ */
+package com.seaglasslookandfeel.util;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.swing.ImageIcon;
+
+/**
+ * Scales window and frame icons for the title panes. Icons are scaled down by
+ * halving them with bilinear interpolation until they reach the size wanted,
+ * which looks as good as Image.SCALE_SMOOTH for icons at a fraction of the
+ * cost, and the result is a fully drawn image compatible with the screen
+ * rather than one produced lazily on its first paint.
+ *
+ * <p>The scaled images are kept for as long as their source image is, so an
+ * application icon shared by many frames is only scaled once for each
+ * size.</p>
+ */
+public final class IconScaler {
+
+    /**
+     * The scaled images, by source image and then by their size packed into
+     * a long. Guarded by itself.
+     */
+    private static final Map<Image, Map<Long, Image>> cache = new WeakHashMap<Image, Map<Long, Image>>();
+
+    /**
+     * Not to be instantiated.
+     */
+    private IconScaler() {
+    }
+
+    /**
+     * Get an icon scaled to a size.
+     *
+     * @param  icon   the icon to scale.
+     * @param  width  the width to scale it to.
+     * @param  height the height to scale it to.
+     *
+     * @return a new icon showing the scaled image.
+     */
+    public static ImageIcon getScaledIcon(ImageIcon icon, int width, int height) {
+        return new ImageIcon(getScaledImage(icon.getImage(), width, height));
+    }
+
+    /**
+     * Get an image scaled to a size.
+     *
+     * @param  source the image to scale.
+     * @param  width  the width to scale it to.
+     * @param  height the height to scale it to.
+     *
+     * @return the scaled image. This is shared, and must not be drawn on.
+     */
+    public static Image getScaledImage(Image source, int width, int height) {
+        Long size = Long.valueOf(((long) width << 32) | (height & 0xFFFFFFFFL));
+
+        synchronized (cache) {
+            Map<Long, Image> sizes = cache.get(source);
+
+            if (sizes != null) {
+                Image image = sizes.get(size);
+
+                if (image != null) {
+                    return image;
+                }
+            }
+        }
+
+        // Make sure the source has been loaded, so that its size is known.
+        if (source.getWidth(null) < 0 || source.getHeight(null) < 0) {
+            new ImageIcon(source);
+
+            if (source.getWidth(null) <= 0 || source.getHeight(null) <= 0) {
+                return source.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+            }
+        }
+
+        Image image = scale(source, width, height);
+
+        synchronized (cache) {
+            Map<Long, Image> sizes = cache.get(source);
+
+            if (sizes == null) {
+                sizes = new HashMap<Long, Image>(4);
+                cache.put(source, sizes);
+            }
+
+            sizes.put(size, image);
+        }
+
+        return image;
+    }
+
+    /**
+     * Scale an image, halving each dimension at a time while it is more than
+     * twice the size wanted.
+     *
+     * @param  source the image to scale, which must have been loaded.
+     * @param  width  the width to scale it to.
+     * @param  height the height to scale it to.
+     *
+     * @return the scaled image.
+     */
+    private static Image scale(Image source, int width, int height) {
+        Image image = source;
+        int   w     = source.getWidth(null);
+        int   h     = source.getHeight(null);
+
+        do {
+            w = w / 2 >= width ? w / 2 : width;
+            h = h / 2 >= height ? h / 2 : height;
+
+            BufferedImage step = createCompatibleImage(w, h);
+            Graphics2D    g    = step.createGraphics();
+
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, w, h, null);
+            g.dispose();
+
+            image = step;
+        } while (w != width || h != height);
+
+        return image;
+    }
+
+    /**
+     * Create a translucent image compatible with the screen.
+     *
+     * @param  width  the width of the image.
+     * @param  height the height of the image.
+     *
+     * @return the image.
+     */
+    private static BufferedImage createCompatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+
+        return gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+}
@@ -22,6 +22,7 @@ package com.seaglasslookandfeel.util;
 import java.awt.GraphicsConfiguration;
 import java.awt.Image;
 
+import java.lang.management.ManagementFactory;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 
@@ -29,8 +30,15 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.swing.UIManager;
 
 /**
  * ImageCache - A fixed pixel count sized cache of Images keyed by arbitrary set
@@ -38,50 +46,121 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * by the GC if heap memory gets tight. When our size hits max pixel count least
  * recently requested images are removed first.
  *
+ * <p>The cache is split into one segment per GraphicsConfiguration, since the
+ * images for different devices never share memory. Each segment has its own
+ * lock, least recently used ordering and pixel count, so painting on one
+ * device never waits for painting on another, and rendering threads other
+ * than the event dispatch thread, e.g. printing or image export, may use the
+ * cache safely.</p>
+ *
+ * <p>The budget, the maximum single image size and the eviction policy of the
+ * singleton may be set with the system properties or UIManager keys
+ * {@value #MAX_PIXEL_COUNT_KEY}, {@value #MAX_SINGLE_IMAGE_PIXEL_SIZE_KEY} and
+ * {@value #EVICTION_POLICY_KEY}. UIManager keys are read when the look and feel
+ * is initialized and take precedence. The live counters are available from
+ * {@link #getStatistics()}, and through JMX once {@link #registerMBean()} has
+ * been called or the system property {@value #JMX_KEY} is true.</p>
+ *
  * <p>Based on Nimbus's ImageCache by Jasper Potts. This was package local.</p>
  *
  */
-public class ImageCache {
+public class ImageCache implements ImageCacheMXBean {
+
+    /** The key for the maximum number of pixels cached per segment. */
+    public static final String MAX_PIXEL_COUNT_KEY = "SeaGlass.ImageCache.maxPixelCount";
+
+    /** The key for the maximum pixel count of a single cached image. */
+    public static final String MAX_SINGLE_IMAGE_PIXEL_SIZE_KEY = "SeaGlass.ImageCache.maxSingleImagePixelSize";
+
+    /** The key for the eviction policy, the name of an EvictionPolicy. */
+    public static final String EVICTION_POLICY_KEY = "SeaGlass.ImageCache.evictionPolicy";
+
+    /** The system property which registers the singleton with JMX if true. */
+    public static final String JMX_KEY = "SeaGlass.ImageCache.jmx";
+
+    /** The JMX object name of the singleton. */
+    public static final String OBJECT_NAME = "com.seaglasslookandfeel:type=ImageCache";
+
+    private static final int DEFAULT_MAX_PIXEL_COUNT = (8 * 1024 * 1024) / 4; // 8Mb of pixels
+
+    private static final int DEFAULT_MAX_SINGLE_IMAGE_PIXEL_SIZE = 300 * 300;
+
+    /**
+     * The order in which images are evicted when a segment is over its pixel
+     * budget.
+     */
+    public static enum EvictionPolicy {
+
+        /** Evict the least recently requested image first. */
+        LEAST_RECENTLY_USED,
+
+        /**
+         * Evict the least recently cached image first. Lookups do not reorder
+         * the cache.
+         */
+        FIRST_IN_FIRST_OUT
+    }
 
     // Singleton Instance
-    private static final ImageCache instance = new ImageCache();
+    private static final ImageCache instance = new ImageCache(parseIntSetting(System.getProperty(MAX_PIXEL_COUNT_KEY),
+                                                                              DEFAULT_MAX_PIXEL_COUNT),
+                                                              parseIntSetting(System.getProperty(MAX_SINGLE_IMAGE_PIXEL_SIZE_KEY),
+                                                                              DEFAULT_MAX_SINGLE_IMAGE_PIXEL_SIZE),
+                                                              parseEvictionPolicy(System.getProperty(EVICTION_POLICY_KEY),
+                                                                                  EvictionPolicy.LEAST_RECENTLY_USED));
 
-    // Ordered Map keyed by args hash, ordered by most recent accessed entry.
-    private final LinkedHashMap<Integer, PixelCountSoftReference> map = new LinkedHashMap<Integer, PixelCountSoftReference>(16, 0.75f,
-                                                                                                                            true);
+    // Segment key for images not bound to a graphics configuration.
+    private static final Object NULL_CONFIG = new Object();
 
-    // Maximum number of pixels to cache, this is used if maxCount
-    private final int maxPixelCount;
+    // Segments keyed by graphics configuration.
+    private final ConcurrentMap<Object, Segment> segments = new ConcurrentHashMap<Object, Segment>(4, 0.75f, 2);
 
-    // Maximum cached image size in pxiels
-    private final int maxSingleImagePixelSize;
+    // Maximum number of pixels to cache per segment
+    private volatile int maxPixelCount;
 
-    // The current number of pixels stored in the cache
-    private int currentPixelCount = 0;
+    // Maximum cached image size in pxiels
+    private volatile int maxSingleImagePixelSize;
 
-    // Lock for concurrent access to map
-    private ReadWriteLock lock = new ReentrantReadWriteLock();
+    // The order in which images are evicted
+    private volatile EvictionPolicy evictionPolicy;
 
-    // Reference queue for tracking lost softreferences to images in the cache
-    private ReferenceQueue<Image> referenceQueue = new ReferenceQueue<Image>();
+    // Misses for configurations which have no segment yet
+    private final AtomicLong segmentMissCount = new AtomicLong();
 
     /**
      * Creates a new ImageCache object.
      */
     public ImageCache() {
-        this.maxPixelCount           = (8 * 1024 * 1024) / 4; // 8Mb of pixels
-        this.maxSingleImagePixelSize = 300 * 300;
+        this(DEFAULT_MAX_PIXEL_COUNT, DEFAULT_MAX_SINGLE_IMAGE_PIXEL_SIZE);
     }
 
     /**
      * Creates a new ImageCache object.
      *
-     * @param maxPixelCount           the maximum pixel count.
+     * @param maxPixelCount           the maximum pixel count for each graphics
+     *                                configuration.
      * @param maxSingleImagePixelSize the maximum single image pixel size.
      */
     public ImageCache(int maxPixelCount, int maxSingleImagePixelSize) {
+        this(maxPixelCount, maxSingleImagePixelSize, EvictionPolicy.LEAST_RECENTLY_USED);
+    }
+
+    /**
+     * Creates a new ImageCache object.
+     *
+     * @param maxPixelCount           the maximum pixel count for each graphics
+     *                                configuration.
+     * @param maxSingleImagePixelSize the maximum single image pixel size.
+     * @param evictionPolicy          the order in which images are evicted.
+     */
+    public ImageCache(int maxPixelCount, int maxSingleImagePixelSize, EvictionPolicy evictionPolicy) {
+        if (evictionPolicy == null) {
+            throw new IllegalArgumentException("evictionPolicy must not be null");
+        }
+
         this.maxPixelCount           = maxPixelCount;
         this.maxSingleImagePixelSize = maxSingleImagePixelSize;
+        this.evictionPolicy          = evictionPolicy;
     }
 
     /**
@@ -94,15 +173,238 @@ public class ImageCache {
     }
 
     /**
-     * Clear the cache.
+     * Reads the cache settings from the UIManager keys, falling back to the
+     * system properties and then to the current values, and registers the
+     * cache with JMX if the system property {@value #JMX_KEY} is true. Called
+     * by the look and feel when it is initialized.
      */
-    public void flush() {
-        lock.readLock().lock();
+    public void configure() {
+        setMaxPixelCount(getIntSetting(MAX_PIXEL_COUNT_KEY, maxPixelCount));
+        setMaxSingleImagePixelSize(getIntSetting(MAX_SINGLE_IMAGE_PIXEL_SIZE_KEY, maxSingleImagePixelSize));
+
+        Object policy = UIManager.get(EVICTION_POLICY_KEY);
 
+        if (policy == null) {
+            policy = System.getProperty(EVICTION_POLICY_KEY);
+        }
+
+        if (policy instanceof EvictionPolicy) {
+            setEvictionPolicy((EvictionPolicy) policy);
+        } else if (policy != null) {
+            setEvictionPolicy(parseEvictionPolicy(policy.toString(), evictionPolicy));
+        }
+
+        if (Boolean.getBoolean(JMX_KEY)) {
+            registerMBean();
+        }
+    }
+
+    /**
+     * Registers this cache with the platform MBean server under
+     * {@value #OBJECT_NAME}. Does nothing if a cache is already registered
+     * there or JMX is unavailable.
+     */
+    public void registerMBean() {
         try {
-            map.clear();
-        } finally {
-            lock.readLock().unlock();
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName  name   = new ObjectName(OBJECT_NAME);
+
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            // Statistics are informational only, so painting goes on without them.
+        } catch (SecurityException e) {
+            // Not allowed in this environment, e.g. an applet.
+        }
+    }
+
+    /**
+     * Returns a snapshot of the cache counters, summed over all segments.
+     *
+     * @return the statistics.
+     */
+    public Statistics getStatistics() {
+        Statistics stats = new Statistics();
+
+        stats.missCount = segmentMissCount.get();
+
+        for (Segment segment : segments.values()) {
+            segment.addStatistics(stats);
+        }
+
+        return stats;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters to zero.
+     */
+    public void resetStatistics() {
+        segmentMissCount.set(0);
+
+        for (Segment segment : segments.values()) {
+            segment.resetStatistics();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getHitCount() {
+        return getStatistics().getHitCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getMissCount() {
+        return getStatistics().getMissCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public double getHitRate() {
+        return getStatistics().getHitRate();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getEvictionCount() {
+        return getStatistics().getEvictionCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getCollectedCount() {
+        return getStatistics().getCollectedCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getImageCount() {
+        return getStatistics().getImageCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getPixelCount() {
+        return getStatistics().getPixelCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getByteCount() {
+        return getStatistics().getByteCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getMaxPixelCount() {
+        return maxPixelCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setMaxPixelCount(int maxPixelCount) {
+        if (maxPixelCount < 0) {
+            throw new IllegalArgumentException("maxPixelCount must not be negative");
+        }
+
+        this.maxPixelCount = maxPixelCount;
+
+        for (Segment segment : segments.values()) {
+            segment.trim();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getMaxSingleImagePixelSize() {
+        return maxSingleImagePixelSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setMaxSingleImagePixelSize(int maxSingleImagePixelSize) {
+        if (maxSingleImagePixelSize < 0) {
+            throw new IllegalArgumentException("maxSingleImagePixelSize must not be negative");
+        }
+
+        this.maxSingleImagePixelSize = maxSingleImagePixelSize;
+    }
+
+    /**
+     * Returns the order in which images are evicted.
+     *
+     * @return the eviction policy.
+     */
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * Sets the order in which images are evicted. The images already cached
+     * are kept.
+     *
+     * @param evictionPolicy the eviction policy.
+     */
+    public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+        if (evictionPolicy == null) {
+            throw new IllegalArgumentException("evictionPolicy must not be null");
+        }
+
+        if (evictionPolicy != this.evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+
+            for (Segment segment : segments.values()) {
+                segment.reorder();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getEvictionPolicyName() {
+        return evictionPolicy.name();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setEvictionPolicyName(String name) {
+        EvictionPolicy policy = parseEvictionPolicy(name, null);
+
+        if (policy == null) {
+            throw new IllegalArgumentException("Unknown eviction policy " + name);
+        }
+
+        setEvictionPolicy(policy);
+    }
+
+    /**
+     * Clear the cache.
+     */
+    public void flush() {
+        for (Segment segment : segments.values()) {
+            segment.clear();
         }
     }
 
@@ -131,21 +433,15 @@ public class ImageCache {
      *         key
      */
     public Image getImage(GraphicsConfiguration config, int w, int h, Object... args) {
-        lock.readLock().lock();
+        Segment segment = segments.get(config == null ? NULL_CONFIG : config);
 
-        try {
-            PixelCountSoftReference ref = map.get(hash(config, w, h, args));
-
-            // check reference has not been lost and the key truly matches, in
-            // case of false positive hash match
-            if (ref != null && ref.equals(config, w, h, args)) {
-                return ref.get();
-            } else {
-                return null;
-            }
-        } finally {
-            lock.readLock().unlock();
+        if (segment == null) {
+            segmentMissCount.incrementAndGet();
+
+            return null;
         }
+
+        return segment.get(new ImageKey(config, w, h, args));
     }
 
     /**
@@ -165,100 +461,522 @@ public class ImageCache {
         if (!isImageCachable(w, h))
             return false;
 
-        int hash = hash(config, w, h, args);
+        getSegment(config).put(new ImageKey(config, w, h, args), image);
 
-        lock.writeLock().lock();
+        return true;
+    }
 
-        try {
-            PixelCountSoftReference ref = map.get(hash);
+    /**
+     * Get the segment for a graphics configuration, creating it if necessary.
+     *
+     * @param  config the graphics configuration. May be {@code null}.
+     *
+     * @return the segment.
+     */
+    private Segment getSegment(GraphicsConfiguration config) {
+        Object  segmentKey = config == null ? NULL_CONFIG : config;
+        Segment segment    = segments.get(segmentKey);
 
-            // check if currently in map
-            if (ref != null && ref.get() == image) {
-                return true;
+        if (segment == null) {
+            Segment newSegment = new Segment();
+
+            segment = segments.putIfAbsent(segmentKey, newSegment);
+
+            if (segment == null) {
+                segment = newSegment;
             }
+        }
+
+        return segment;
+    }
+
+    /**
+     * Read an integer setting from the UIManager, then from the system
+     * properties.
+     *
+     * @param  key          the UIManager key and system property name.
+     * @param  defaultValue the value to use if neither is set or valid.
+     *
+     * @return the setting.
+     */
+    private static int getIntSetting(String key, int defaultValue) {
+        Object value = UIManager.get(key);
+
+        if (value == null) {
+            value = System.getProperty(key);
+        }
 
-            // clear out old
-            if (ref != null) {
-                currentPixelCount -= ref.pixelCount;
-                map.remove(hash);
+        return parseIntSetting(value, defaultValue);
+    }
+
+    /**
+     * Parse an integer setting, a Number or its string form. Malformed and
+     * negative values are ignored.
+     *
+     * @param  value        the value, may be null.
+     * @param  defaultValue the value to use if it is null or not valid.
+     *
+     * @return the setting.
+     */
+    private static int parseIntSetting(Object value, int defaultValue) {
+        int setting;
+
+        if (value instanceof Number) {
+            setting = ((Number) value).intValue();
+        } else if (value != null) {
+            try {
+                setting = Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                // Ignore a malformed setting and keep the default.
+                return defaultValue;
             }
+        } else {
+            return defaultValue;
+        }
 
-            // add new image to pixel count
-            int newPixelCount = image.getWidth(null) * image.getHeight(null);
+        return setting < 0 ? defaultValue : setting;
+    }
+
+    /**
+     * Parse the name of an eviction policy, ignoring case.
+     *
+     * @param  name         the name.
+     * @param  defaultValue the policy to use if the name is null or unknown.
+     *
+     * @return the eviction policy.
+     */
+    private static EvictionPolicy parseEvictionPolicy(String name, EvictionPolicy defaultValue) {
+        if (name != null) {
+            for (EvictionPolicy policy : EvictionPolicy.values()) {
+                if (policy.name().equalsIgnoreCase(name.trim())) {
+                    return policy;
+                }
+            }
+        }
+
+        return defaultValue;
+    }
+
+    /**
+     * A snapshot of the cache counters.
+     */
+    public static class Statistics {
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+        private long collectedCount;
+        private int  imageCount;
+        private long pixelCount;
+
+        /**
+         * Returns the number of lookups which found an image.
+         *
+         * @return the hit count.
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * Returns the number of lookups which found no image.
+         *
+         * @return the miss count.
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * Returns the fraction of lookups which found an image.
+         *
+         * @return the hit rate, between 0 and 1, or 0 if there were no
+         *         lookups.
+         */
+        public double getHitRate() {
+            long lookups = hitCount + missCount;
+
+            return lookups == 0 ? 0 : (double) hitCount / lookups;
+        }
+
+        /**
+         * Returns the number of images removed to stay within the pixel
+         * budget.
+         *
+         * @return the eviction count.
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * Returns the number of images dropped by the garbage collector.
+         *
+         * @return the collected count.
+         */
+        public long getCollectedCount() {
+            return collectedCount;
+        }
+
+        /**
+         * Returns the number of images in the cache.
+         *
+         * @return the image count.
+         */
+        public int getImageCount() {
+            return imageCount;
+        }
 
-            currentPixelCount += newPixelCount;
+        /**
+         * Returns the number of pixels in the cache.
+         *
+         * @return the pixel count.
+         */
+        public long getPixelCount() {
+            return pixelCount;
+        }
 
-            // clean out lost references if not enough space
-            if (currentPixelCount > maxPixelCount) {
+        /**
+         * Returns the approximate memory used by the cached images, at four
+         * bytes per pixel.
+         *
+         * @return the byte count.
+         */
+        public long getByteCount() {
+            return pixelCount * 4;
+        }
 
-                while ((ref = (PixelCountSoftReference) referenceQueue.poll()) != null) {
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "ImageCache.Statistics[hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + ", collected="
+                + collectedCount + ", images=" + imageCount + ", bytes=" + getByteCount() + "]";
+        }
+    }
+
+    /**
+     * The images cached for one graphics configuration, in eviction order,
+     * with their own lock and pixel count.
+     */
+    private class Segment {
+
+        // Ordered Map keyed by args, ordered by the eviction policy.
+        private LinkedHashMap<ImageKey, PixelCountSoftReference> map = createMap(16);
+
+        // The current number of pixels stored in the segment
+        private int currentPixelCount = 0;
+
+        // Counters, guarded by the lock
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+        private long collectedCount;
+
+        // Lock for access to map. Reads reorder the map, so all access is
+        // exclusive.
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // Reference queue for tracking lost softreferences to images in the
+        // segment
+        private final ReferenceQueue<Image> referenceQueue = new ReferenceQueue<Image>();
+
+        /**
+         * Get the cached image for a key.
+         *
+         * @param  key the key.
+         *
+         * @return the image, or {@code null} if there is none or it has been
+         *         collected.
+         */
+        public Image get(ImageKey key) {
+            lock.lock();
+
+            try {
+                PixelCountSoftReference ref = map.get(key);
+
+                if (ref == null) {
+                    missCount++;
+
+                    return null;
+                }
+
+                Image image = ref.get();
+
+                if (image == null) {
 
                     // reference lost
-                    map.remove(ref.hash);
-                    currentPixelCount -= ref.pixelCount;
+                    remove(ref);
+                    collectedCount++;
+                    missCount++;
+                } else {
+                    hitCount++;
+                }
+
+                return image;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Put an image in the segment, evicting least recently requested
+         * images until it fits.
+         *
+         * @param key   the key.
+         * @param image the image.
+         */
+        public void put(ImageKey key, Image image) {
+            int newPixelCount = image.getWidth(null) * image.getHeight(null);
+
+            lock.lock();
+
+            try {
+                PixelCountSoftReference ref = map.get(key);
+
+                // check if currently in map
+                if (ref != null && ref.get() == image) {
+                    return;
+                }
+
+                // clear out old
+                if (ref != null) {
+                    remove(ref);
                 }
+
+                // clean out lost references
+                expungeStaleEntries();
+
+                currentPixelCount += newPixelCount;
+
+                // remove old items till there is enough free space
+                evict();
+
+                // finaly put new in map
+                map.put(key, new PixelCountSoftReference(image, referenceQueue, newPixelCount, key));
+            } finally {
+                lock.unlock();
             }
+        }
 
-            // remove old items till there is enough free space
-            if (currentPixelCount > maxPixelCount) {
-                Iterator<Map.Entry<Integer, PixelCountSoftReference>> mapIter = map.entrySet().iterator();
+        /**
+         * Remove old items till the segment is within the pixel budget.
+         */
+        public void trim() {
+            lock.lock();
 
-                while ((currentPixelCount > maxPixelCount) && mapIter.hasNext()) {
-                    Map.Entry<Integer, PixelCountSoftReference> entry = mapIter.next();
+            try {
+                evict();
+            } finally {
+                lock.unlock();
+            }
+        }
 
-                    mapIter.remove();
-                    Image img = entry.getValue().get();
+        /**
+         * Rebuild the map in the order of the current eviction policy.
+         */
+        public void reorder() {
+            lock.lock();
 
-                    if (img != null)
-                        img.flush();
+            try {
+                LinkedHashMap<ImageKey, PixelCountSoftReference> newMap = createMap(map.size());
 
-                    currentPixelCount -= entry.getValue().pixelCount;
+                newMap.putAll(map);
+                map = newMap;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Add the counters of this segment to a statistics snapshot.
+         *
+         * @param stats the statistics.
+         */
+        public void addStatistics(Statistics stats) {
+            lock.lock();
+
+            try {
+                stats.hitCount       += hitCount;
+                stats.missCount      += missCount;
+                stats.evictionCount  += evictionCount;
+                stats.collectedCount += collectedCount;
+                stats.imageCount     += map.size();
+                stats.pixelCount     += currentPixelCount;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Reset the hit, miss and eviction counters.
+         */
+        public void resetStatistics() {
+            lock.lock();
+
+            try {
+                hitCount       = 0;
+                missCount      = 0;
+                evictionCount  = 0;
+                collectedCount = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Remove all images from the segment.
+         */
+        public void clear() {
+            lock.lock();
+
+            try {
+                map.clear();
+                currentPixelCount = 0;
+
+                while (referenceQueue.poll() != null) {
+                    // the queued references belong to entries just removed
                 }
+            } finally {
+                lock.unlock();
             }
+        }
+
+        /**
+         * Create an empty map ordered by the current eviction policy.
+         *
+         * @param  capacity the initial capacity.
+         *
+         * @return the map.
+         */
+        private LinkedHashMap<ImageKey, PixelCountSoftReference> createMap(int capacity) {
+            return new LinkedHashMap<ImageKey, PixelCountSoftReference>(Math.max(16, capacity), 0.75f,
+                                                                        evictionPolicy == EvictionPolicy.LEAST_RECENTLY_USED);
+        }
+
+        /**
+         * Remove the eldest entries till the segment is within the pixel
+         * budget. The lock must be held.
+         */
+        private void evict() {
+            Iterator<Map.Entry<ImageKey, PixelCountSoftReference>> mapIter = map.entrySet().iterator();
 
-            // finaly put new in map
-            map.put(hash, new PixelCountSoftReference(image, referenceQueue, newPixelCount, hash, config, w, h, args));
+            while (currentPixelCount > maxPixelCount && mapIter.hasNext()) {
+                PixelCountSoftReference eldest = mapIter.next().getValue();
 
-            return true;
-        } finally {
-            lock.writeLock().unlock();
+                mapIter.remove();
+                currentPixelCount -= eldest.pixelCount;
+                evictionCount++;
+                Image img = eldest.get();
+
+                if (img != null)
+                    img.flush();
+            }
         }
-    }
 
-    /**
-     * Create a unique hash from all the input.
-     *
-     * @param  config the graphics configuration.
-     * @param  w      the width.
-     * @param  h      the height.
-     * @param  args   the arguments for the image.
-     *
-     * @return the hash for the object instance.
-     */
-    private int hash(GraphicsConfiguration config, int w, int h, Object... args) {
-        int hash;
+        /**
+         * Remove the entries whose images have been collected. The lock must
+         * be held.
+         */
+        private void expungeStaleEntries() {
+            PixelCountSoftReference ref;
 
-        hash = (config != null ? config.hashCode() : 0);
-        hash = 31 * hash + w;
-        hash = 31 * hash + h;
-        hash = 31 * hash + Arrays.deepHashCode(args);
+            while ((ref = (PixelCountSoftReference) referenceQueue.poll()) != null) {
+                if (remove(ref)) {
+                    collectedCount++;
+                }
+            }
+        }
 
-        return hash;
+        /**
+         * Remove an entry if it is still mapped, adjusting the pixel count. The
+         * lock must be held.
+         *
+         * @param  ref the reference for the entry.
+         *
+         * @return {@code true} if the entry was removed, {@code false} if the
+         *         key has since been mapped to another image.
+         */
+        private boolean remove(PixelCountSoftReference ref) {
+            if (map.get(ref.key) != ref) {
+                return false;
+            }
+
+            map.remove(ref.key);
+            currentPixelCount -= ref.pixelCount;
+
+            return true;
+        }
     }
 
     /**
-     * Extended SoftReference that stores the pixel count even after the image
-     * is lost.
+     * The full key of a cached image. The arguments are compared deeply, so
+     * arrays of extended cache keys match by content.
      */
-    private static class PixelCountSoftReference extends SoftReference<Image> {
-        private final int pixelCount;
-        private final int hash;
+    private static class ImageKey {
 
         // key parts
         private final GraphicsConfiguration config;
         private final int                   w;
         private final int                   h;
         private final Object[]              args;
+        private final int                   hash;
+
+        /**
+         * Creates a new ImageKey object.
+         *
+         * @param config the graphics configuration.
+         * @param w      the width.
+         * @param h      the height.
+         * @param args   the arguments for the image.
+         */
+        public ImageKey(GraphicsConfiguration config, int w, int h, Object[] args) {
+            this.config = config;
+            this.w      = w;
+            this.h      = h;
+            this.args   = args;
+
+            int result;
+
+            result    = (config != null ? config.hashCode() : 0);
+            result    = 31 * result + w;
+            result    = 31 * result + h;
+            result    = 31 * result + Arrays.deepHashCode(args);
+            this.hash = result;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            } else if (!(obj instanceof ImageKey)) {
+                return false;
+            }
+
+            ImageKey other = (ImageKey) obj;
+
+            return hash == other.hash && config == other.config && w == other.w && h == other.h && Arrays.deepEquals(args, other.args);
+        }
+    }
+
+    /**
+     * Extended SoftReference that stores the pixel count and key even after
+     * the image is lost.
+     */
+    private static class PixelCountSoftReference extends SoftReference<Image> {
+        private final int      pixelCount;
+        private final ImageKey key;
 
         /**
          * Creates a new PixelCountSoftReference object.
@@ -266,36 +984,12 @@ public class ImageCache {
          * @param referent   the image.
          * @param q          the reference queue.
          * @param pixelCount the pixel count.
-         * @param hash       the hash.
-         * @param config     the graphics configuration.
-         * @param w          the width.
-         * @param h          the height.
-         * @param args       the arguments for the image.
+         * @param key        the key.
          */
-        public PixelCountSoftReference(Image referent, ReferenceQueue<? super Image> q, int pixelCount, int hash,
-                GraphicsConfiguration config, int w, int h, Object[] args) {
+        public PixelCountSoftReference(Image referent, ReferenceQueue<? super Image> q, int pixelCount, ImageKey key) {
             super(referent, q);
             this.pixelCount = pixelCount;
-            this.hash       = hash;
-            this.config     = config;
-            this.w          = w;
-            this.h          = h;
-            this.args       = args;
-        }
-
-        /**
-         * Tests for equality.
-         *
-         * @param  config the graphics configuration.
-         * @param  w      the width.
-         * @param  h      the height.
-         * @param  args   the arguments for the image.
-         *
-         * @return {@code true} if the arguments describe the same object as
-         *         this one, {@code false} otherwise.
-         */
-        public boolean equals(GraphicsConfiguration config, int w, int h, Object[] args) {
-            return config == this.config && w == this.w && h == this.h && Arrays.equals(args, this.args);
+            this.key        = key;
         }
     }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2009 Kathryn Huxtable and Kenneth Orr.
+ *
+ * This file is part of the SeaGlass Pluggable Look and Feel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * $Id$
+ */
+package com.seaglasslookandfeel.util;
+
+/**
+ * The management interface of the painter image cache, for sizing the cache
+ * from the counters of a running application.
+ *
+ * @see ImageCache#registerMBean()
+ */
+public interface ImageCacheMXBean {
+
+    /**
+     * Returns the number of lookups which found an image.
+     *
+     * @return the hit count.
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of lookups which found no image.
+     *
+     * @return the miss count.
+     */
+    long getMissCount();
+
+    /**
+     * Returns the fraction of lookups which found an image.
+     *
+     * @return the hit rate, between 0 and 1.
+     */
+    double getHitRate();
+
+    /**
+     * Returns the number of images removed to stay within the pixel budget.
+     *
+     * @return the eviction count.
+     */
+    long getEvictionCount();
+
+    /**
+     * Returns the number of images dropped by the garbage collector.
+     *
+     * @return the collected count.
+     */
+    long getCollectedCount();
+
+    /**
+     * Returns the number of images in the cache.
+     *
+     * @return the image count.
+     */
+    int getImageCount();
+
+    /**
+     * Returns the number of pixels in the cache.
+     *
+     * @return the pixel count.
+     */
+    long getPixelCount();
+
+    /**
+     * Returns the approximate memory used by the cached images.
+     *
+     * @return the byte count.
+     */
+    long getByteCount();
+
+    /**
+     * Returns the number of graphics configurations with cached images.
+     *
+     * @return the segment count.
+     */
+    int getSegmentCount();
+
+    /**
+     * Returns the maximum number of pixels cached per graphics configuration.
+     *
+     * @return the pixel budget.
+     */
+    int getMaxPixelCount();
+
+    /**
+     * Sets the maximum number of pixels cached per graphics configuration,
+     * evicting images if the cache is now over budget.
+     *
+     * @param maxPixelCount the pixel budget.
+     */
+    void setMaxPixelCount(int maxPixelCount);
+
+    /**
+     * Returns the maximum pixel count of a single cached image.
+     *
+     * @return the maximum single image pixel size.
+     */
+    int getMaxSingleImagePixelSize();
+
+    /**
+     * Sets the maximum pixel count of a single cached image.
+     *
+     * @param maxSingleImagePixelSize the maximum single image pixel size.
+     */
+    void setMaxSingleImagePixelSize(int maxSingleImagePixelSize);
+
+    /**
+     * Returns the name of the eviction policy.
+     *
+     * @return the eviction policy name.
+     */
+    String getEvictionPolicyName();
+
+    /**
+     * Sets the eviction policy by name.
+     *
+     * @param name the eviction policy name, e.g. "LEAST_RECENTLY_USED" or
+     *             "FIRST_IN_FIRST_OUT".
+     */
+    void setEvictionPolicyName(String name);
+
+    /**
+     * Resets the hit, miss and eviction counters to zero.
+     */
+    void resetStatistics();
+
+    /**
+     * Removes all images from the cache.
+     */
+    void flush();
+}
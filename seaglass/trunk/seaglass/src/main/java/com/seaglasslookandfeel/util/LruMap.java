@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2009 Kathryn Huxtable and Kenneth Orr.
+ *
+ * This file is part of the SeaGlass Pluggable Look and Feel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * $Id$
+ */
+package com.seaglasslookandfeel.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map holding at most a fixed number of entries, which drops the least
+ * recently used entry when a new one would take it over that number. Used by
+ * the caches of the look and feel.
+ *
+ * <p>Like LinkedHashMap it is not synchronized, and since a lookup changes the
+ * order of the entries, even lookups must be synchronized by its users.</p>
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public class LruMap<K, V> extends LinkedHashMap<K, V> {
+    private static final long serialVersionUID = -4710396127588203542L;
+
+    /** The most entries to keep. */
+    private final int maxEntries;
+
+    /**
+     * Creates a new LruMap object.
+     *
+     * @param initialCapacity the initial capacity.
+     * @param maxEntries      the most entries to keep.
+     */
+    public LruMap(int initialCapacity, int maxEntries) {
+        super(initialCapacity, 0.75f, true);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
+     */
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxEntries;
+    }
+}
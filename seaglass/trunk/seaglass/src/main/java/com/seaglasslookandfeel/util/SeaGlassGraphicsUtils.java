@@ -216,7 +216,7 @@ public class SeaGlassGraphicsUtils extends SynthGraphicsUtils {
             JComponent c = ss.getComponent();
 
             // SynthStyle style = ss.getStyle();
-            FontMetrics fm = SwingUtilities2.getFontMetrics(c, g2d);
+            FontMetrics fm = TextMetricsCache.getFontMetrics(SwingUtilities2.getFontMetrics(c, g2d));
 
             y += fm.getAscent();
             SwingUtilities2.drawString(c, g2d, text, x, y);
@@ -232,6 +232,32 @@ public class SeaGlassGraphicsUtils extends SynthGraphicsUtils {
         }
     }
 
+    /**
+     * Returns the size of the text, remembering it for the next time the same
+     * text is measured in the same font.
+     *
+     * @see javax.swing.plaf.synth.SynthGraphicsUtils#computeStringWidth(javax.swing.plaf.synth.SynthContext,
+     *      java.awt.Font, java.awt.FontMetrics, java.lang.String)
+     */
+    public int computeStringWidth(SynthContext ss, Font font, FontMetrics metrics, String text) {
+        return super.computeStringWidth(ss, font, TextMetricsCache.getFontMetrics(metrics), text);
+    }
+
+    /**
+     * Lays out text and an icon, remembering the widths of the text measured
+     * for the next time the same text is laid out in the same font.
+     *
+     * @see javax.swing.plaf.synth.SynthGraphicsUtils#layoutText(javax.swing.plaf.synth.SynthContext,
+     *      java.awt.FontMetrics, java.lang.String, javax.swing.Icon, int, int,
+     *      int, int, java.awt.Rectangle, java.awt.Rectangle,
+     *      java.awt.Rectangle, int)
+     */
+    public String layoutText(SynthContext ss, FontMetrics fm, String text, Icon icon, int hAlign, int vAlign, int hTextPosition,
+        int vTextPosition, Rectangle viewR, Rectangle iconR, Rectangle textR, int iconTextGap) {
+        return super.layoutText(ss, TextMetricsCache.getFontMetrics(fm), text, icon, hAlign, vAlign, hTextPosition, vTextPosition, viewR,
+            iconR, textR, iconTextGap);
+    }
+
     /**
      * Returns a new color with the alpha of the old color cut in half.
      *
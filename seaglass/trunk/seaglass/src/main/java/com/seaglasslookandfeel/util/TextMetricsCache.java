@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) 2009 Kathryn Huxtable and Kenneth Orr.
+ *
+ * This file is part of the SeaGlass Pluggable Look and Feel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * $Id$
+ */
+package com.seaglasslookandfeel.util;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.awt.geom.Rectangle2D;
+
+import java.text.CharacterIterator;
+
+import java.util.Map;
+
+/**
+ * Remembers the widths of the strings measured by the SeaGlass graphics
+ * utilities. Labels, table cells, headers and menu items measure the same
+ * strings on every layout and every paint, to place them and to decide
+ * whether they must be clipped.
+ *
+ * <p>The widths are kept per font and font render context, behind a
+ * FontMetrics which delegates everything else to the metrics it wraps. That
+ * FontMetrics can be handed to Swing's own layout code, so strings measured
+ * there are remembered as well. Both the fonts and the strings kept for each
+ * are bounded, the least recently used being dropped first.</p>
+ */
+public final class TextMetricsCache {
+
+    /** The number of font and font render context pairs kept. */
+    private static final int MAX_FONTS = 32;
+
+    /** The number of string widths kept per font. */
+    private static final int MAX_STRINGS = 1024;
+
+    /** The metrics, least recently used first. Guarded by itself. */
+    private static final Map<Key, CachedFontMetrics> cache = new LruMap<Key, CachedFontMetrics>(MAX_FONTS * 2, MAX_FONTS);
+
+    /** The key used for lookups, so that a hit allocates nothing. */
+    private static final Key probe = new Key();
+
+    /**
+     * Not to be instantiated.
+     */
+    private TextMetricsCache() {
+    }
+
+    /**
+     * Get font metrics which remember the widths of the strings they measure.
+     *
+     * @param  fm the font metrics to wrap.
+     *
+     * @return font metrics with the same font, font render context and
+     *         measurements as {@code fm}.
+     */
+    public static FontMetrics getFontMetrics(FontMetrics fm) {
+        if (fm == null || fm instanceof CachedFontMetrics) {
+            return fm;
+        }
+
+        synchronized (cache) {
+            probe.font = fm.getFont();
+            probe.frc  = fm.getFontRenderContext();
+
+            CachedFontMetrics metrics = cache.get(probe);
+
+            probe.font = null;
+            probe.frc  = null;
+
+            if (metrics == null || metrics.delegate.getClass() != fm.getClass()) {
+                metrics = new CachedFontMetrics(fm);
+                cache.put(new Key(fm.getFont(), fm.getFontRenderContext()), metrics);
+            }
+
+            return metrics;
+        }
+    }
+
+    /**
+     * Get the width of a string.
+     *
+     * @param  fm   the font metrics to measure with.
+     * @param  text the string.
+     *
+     * @return the width of the string, as measured by {@code fm}.
+     */
+    public static int stringWidth(FontMetrics fm, String text) {
+        return getFontMetrics(fm).stringWidth(text);
+    }
+
+    /**
+     * Forget all the widths. Called when the look and feel is installed or
+     * uninstalled.
+     */
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * A font and a font render context.
+     */
+    private static final class Key {
+        private Font              font;
+        private FontRenderContext frc;
+
+        /**
+         * Create an empty key, to be used as the probe.
+         */
+        Key() {
+        }
+
+        /**
+         * Create a key.
+         *
+         * @param font the font.
+         * @param frc  the font render context.
+         */
+        Key(Font font, FontRenderContext frc) {
+            this.font = font;
+            this.frc  = frc;
+        }
+
+        /**
+         * @see java.lang.Object#hashCode()
+         */
+        public int hashCode() {
+            return 31 * font.hashCode() + frc.hashCode();
+        }
+
+        /**
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+
+            return font.equals(other.font) && frc.equals(other.frc);
+        }
+    }
+
+    /**
+     * Font metrics which remember the widths of the strings they measure, and
+     * delegate everything else.
+     */
+    private static final class CachedFontMetrics extends FontMetrics {
+        private static final long serialVersionUID = 6352891304187236954L;
+
+        private final FontMetrics delegate;
+
+        /** The widths, least recently used first. Guarded by itself. */
+        private final Map<String, Integer> widths = new LruMap<String, Integer>(64, MAX_STRINGS);
+
+        /**
+         * Creates a new CachedFontMetrics object.
+         *
+         * @param delegate the font metrics to delegate to.
+         */
+        CachedFontMetrics(FontMetrics delegate) {
+            super(delegate.getFont());
+            this.delegate = delegate;
+        }
+
+        /**
+         * @see java.awt.FontMetrics#stringWidth(java.lang.String)
+         */
+        public int stringWidth(String str) {
+            synchronized (widths) {
+                Integer width = widths.get(str);
+
+                if (width == null) {
+                    width = delegate.stringWidth(str);
+                    widths.put(str, width);
+                }
+
+                return width;
+            }
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getFontRenderContext()
+         */
+        public FontRenderContext getFontRenderContext() {
+            return delegate.getFontRenderContext();
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getLeading()
+         */
+        public int getLeading() {
+            return delegate.getLeading();
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getAscent()
+         */
+        public int getAscent() {
+            return delegate.getAscent();
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getDescent()
+         */
+        public int getDescent() {
+            return delegate.getDescent();
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getHeight()
+         */
+        public int getHeight() {
+            return delegate.getHeight();
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getMaxAscent()
+         */
+        public int getMaxAscent() {
+            return delegate.getMaxAscent();
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getMaxDescent()
+         */
+        public int getMaxDescent() {
+            return delegate.getMaxDescent();
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getMaxAdvance()
+         */
+        public int getMaxAdvance() {
+            return delegate.getMaxAdvance();
+        }
+
+        /**
+         * @see java.awt.FontMetrics#charWidth(int)
+         */
+        public int charWidth(int codePoint) {
+            return delegate.charWidth(codePoint);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#charWidth(char)
+         */
+        public int charWidth(char ch) {
+            return delegate.charWidth(ch);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#charsWidth(char[], int, int)
+         */
+        public int charsWidth(char[] data, int off, int len) {
+            return delegate.charsWidth(data, off, len);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#bytesWidth(byte[], int, int)
+         */
+        public int bytesWidth(byte[] data, int off, int len) {
+            return delegate.bytesWidth(data, off, len);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getWidths()
+         */
+        public int[] getWidths() {
+            return delegate.getWidths();
+        }
+
+        /**
+         * @see java.awt.FontMetrics#hasUniformLineMetrics()
+         */
+        public boolean hasUniformLineMetrics() {
+            return delegate.hasUniformLineMetrics();
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getLineMetrics(java.lang.String, java.awt.Graphics)
+         */
+        public LineMetrics getLineMetrics(String str, Graphics context) {
+            return delegate.getLineMetrics(str, context);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getLineMetrics(java.lang.String, int, int, java.awt.Graphics)
+         */
+        public LineMetrics getLineMetrics(String str, int beginIndex, int limit, Graphics context) {
+            return delegate.getLineMetrics(str, beginIndex, limit, context);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getLineMetrics(char[], int, int, java.awt.Graphics)
+         */
+        public LineMetrics getLineMetrics(char[] chars, int beginIndex, int limit, Graphics context) {
+            return delegate.getLineMetrics(chars, beginIndex, limit, context);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getLineMetrics(java.text.CharacterIterator, int, int, java.awt.Graphics)
+         */
+        public LineMetrics getLineMetrics(CharacterIterator ci, int beginIndex, int limit, Graphics context) {
+            return delegate.getLineMetrics(ci, beginIndex, limit, context);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getStringBounds(java.lang.String, java.awt.Graphics)
+         */
+        public Rectangle2D getStringBounds(String str, Graphics context) {
+            return delegate.getStringBounds(str, context);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getStringBounds(java.lang.String, int, int, java.awt.Graphics)
+         */
+        public Rectangle2D getStringBounds(String str, int beginIndex, int limit, Graphics context) {
+            return delegate.getStringBounds(str, beginIndex, limit, context);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getStringBounds(char[], int, int, java.awt.Graphics)
+         */
+        public Rectangle2D getStringBounds(char[] chars, int beginIndex, int limit, Graphics context) {
+            return delegate.getStringBounds(chars, beginIndex, limit, context);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getStringBounds(java.text.CharacterIterator, int, int, java.awt.Graphics)
+         */
+        public Rectangle2D getStringBounds(CharacterIterator ci, int beginIndex, int limit, Graphics context) {
+            return delegate.getStringBounds(ci, beginIndex, limit, context);
+        }
+
+        /**
+         * @see java.awt.FontMetrics#getMaxCharBounds(java.awt.Graphics)
+         */
+        public Rectangle2D getMaxCharBounds(Graphics context) {
+            return delegate.getMaxCharBounds(context);
+        }
+    }
+}
@@ -20,6 +20,7 @@
 package com.seaglasslookandfeel.util;
 
 import java.awt.Component;
+import java.awt.Dimension;
 import java.awt.Shape;
 import java.awt.Window;
 import java.awt.event.WindowAdapter;
@@ -28,14 +29,22 @@ import java.awt.event.WindowFocusListener;
 import java.awt.event.WindowListener;
 
 import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import javax.swing.JComponent;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.event.AncestorEvent;
 import javax.swing.event.AncestorListener;
 
+import com.seaglasslookandfeel.painter.util.ShapeGenerator;
+import com.seaglasslookandfeel.painter.util.ShapeGenerator.CornerSize;
+import com.seaglasslookandfeel.painter.util.ShapeGenerator.CornerStyle;
+
 /**
  * Various utitilies used to manage window drawing.
  *
@@ -44,6 +53,24 @@ import javax.swing.event.AncestorListener;
  */
 public class WindowUtils {
 
+    /**
+     * Whether window shapes are supported. Cleared the first time setting a
+     * shape fails because the platform does not support it.
+     */
+    private static volatile boolean shapeSupported = true;
+
+    /**
+     * Whether non-opaque windows are supported. Cleared the first time making
+     * a window non-opaque fails because the platform does not support it.
+     */
+    private static volatile boolean nonOpaqueSupported = true;
+
+    /**
+     * The sizes waiting to be shaped by setWindowShapeLater, by window. Only
+     * used on the event dispatch thread.
+     */
+    private static final Map<Window, Dimension> pendingShapes = new WeakHashMap<Window, Dimension>();
+
     /**
      * Try's to make the given {@link Window} non-opqaue (transparent) across
      * platforms and JREs. This method is not guaranteed to succeed, and will
@@ -76,39 +103,86 @@ public class WindowUtils {
      */
 
     public static void setWindowShape(Window window, Shape s) {
+        if (!shapeSupported) {
+            return;
+        }
+
         if (PlatformUtils.isJava6()) {
-            setWindowShapeJava6(window, s);
+            shapeSupported = invokeQuietly(Capabilities.SET_WINDOW_SHAPE, null, window, s);
         } else {
-            setWindowShapeJava7(window, s);
+            shapeSupported = invokeQuietly(Capabilities.SET_SHAPE, window, s);
         }
     }
 
     /**
-     * @param window
-     * @param s
+     * Sets the shape of a window to a frame with rounded top corners of the
+     * given size, once the events already queued have been dispatched. Only
+     * the last size set before then is shaped, so a window which is reshaped
+     * on every resize event while it is being resized builds and applies one
+     * shape for all the resize events queued together.
+     *
+     * <p>Must be called on the event dispatch thread.</p>
+     *
+     * @param window to change the shape for
+     * @param size   the size of the window.
      */
-    private static void setWindowShapeJava7(Window window, Shape s) {
-        try {
-            Class  clazz  = window.getClass();
-            Method method = clazz.getMethod("setShape", Shape.class);
-            method.invoke(window, s);
-        } catch (Exception e) {
-            // silently ignore this exception.
+    public static void setWindowShapeLater(final Window window, Dimension size) {
+        if (!shapeSupported) {
+            return;
+        }
+
+        boolean scheduled = pendingShapes.containsKey(window);
+
+        pendingShapes.put(window, size);
+
+        if (!scheduled) {
+            SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        Dimension size = pendingShapes.remove(window);
+
+                        if (size != null) {
+
+                            // Window sized shapes are rarely reused, so don't
+                            // keep them with the shared shapes. The window
+                            // copies the shape.
+                            Shape s = new ShapeGenerator().createRoundRectangle(0, 0, size.width, size.height,
+                                                                                CornerSize.FRAME_INNER_HIGHLIGHT,
+                                                                                CornerStyle.ROUNDED, CornerStyle.SQUARE,
+                                                                                CornerStyle.SQUARE, CornerStyle.ROUNDED);
+
+                            setWindowShape(window, s);
+                        }
+                    }
+                });
         }
     }
-    
+
     /**
-     * @param window
-     * @param s
+     * Invoke a method looked up by Capabilities, ignoring any exception.
+     *
+     * @param  method the method, or {@code null} if it is not available.
+     * @param  target the object to invoke it on, or {@code null} if it is
+     *                static.
+     * @param  args   the arguments.
+     *
+     * @return {@code false} if the method is not available or the platform
+     *         does not support it, so there is no point in calling it again,
+     *         {@code true} otherwise.
      */
-    private static void setWindowShapeJava6(Window window, Shape s) {
+    private static boolean invokeQuietly(Method method, Object target, Object... args) {
+        if (method == null) {
+            return false;
+        }
+
         try {
-            Class  clazz  = Class.forName("com.sun.awt.AWTUtilities");
-            Method method = clazz.getMethod("setWindowShape", java.awt.Window.class, Shape.class);
-            method.invoke(clazz, window, s);
+            method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            return !(e.getCause() instanceof UnsupportedOperationException);
         } catch (Exception e) {
             // silently ignore this exception.
         }
+
+        return true;
     }
 
 
@@ -121,15 +195,9 @@ public class WindowUtils {
      *
      * @param window the {@code Window} to try and make non-opaque.
      */
-    @SuppressWarnings("unchecked")
     private static void quietlyTryToMakeWindowNonOqaque(Window window) {
-        try {
-            Class  clazz  = Class.forName("com.sun.awt.AWTUtilities");
-            Method method = clazz.getMethod("setWindowOpaque", java.awt.Window.class, Boolean.TYPE);
-
-            method.invoke(clazz, window, false);
-        } catch (Exception e) {
-            // silently ignore this exception.
+        if (nonOpaqueSupported) {
+            nonOpaqueSupported = invokeQuietly(Capabilities.SET_WINDOW_OPAQUE, null, window, false);
         }
     }
 
@@ -294,4 +362,37 @@ public class WindowUtils {
         };
     }
 
+    /**
+     * The window shape and opacity methods, looked up when first needed. A
+     * method is {@code null} if it is not available in this JRE.
+     */
+    private static class Capabilities {
+
+        /** Window.setShape(Shape), from Java 7. */
+        static final Method SET_SHAPE = getMethod("java.awt.Window", "setShape", Shape.class);
+
+        /** AWTUtilities.setWindowShape(Window, Shape), from Java 6 update 10. */
+        static final Method SET_WINDOW_SHAPE = getMethod("com.sun.awt.AWTUtilities", "setWindowShape", Window.class, Shape.class);
+
+        /** AWTUtilities.setWindowOpaque(Window, boolean), from Java 6 update 10. */
+        static final Method SET_WINDOW_OPAQUE = getMethod("com.sun.awt.AWTUtilities", "setWindowOpaque", Window.class, Boolean.TYPE);
+
+        /**
+         * Look up a public method.
+         *
+         * @param  className      the name of the class declaring it.
+         * @param  methodName     the name of the method.
+         * @param  parameterTypes the types of its parameters.
+         *
+         * @return the method, or {@code null} if it is not available.
+         */
+        private static Method getMethod(String className, String methodName, Class<?>... parameterTypes) {
+            try {
+                return Class.forName(className).getMethod(methodName, parameterTypes);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
 }
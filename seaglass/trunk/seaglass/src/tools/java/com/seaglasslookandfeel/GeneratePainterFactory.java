@@ -0,0 +1,177 @@
+package com.seaglasslookandfeel;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * Generates com.seaglasslookandfeel.painter.PainterFactory, which creates the
+ * painters named in the look and feel defaults without reflection. Every
+ * class in the painter package that declares a Which enum is included, so run
+ * this again whenever a painter is added or removed. The Maven build runs it
+ * in the generate-sources phase.
+ *
+ * <p>Usage: GeneratePainterFactory [source directory]. The source directory
+ * defaults to src/main/java. The file is only written if its contents have
+ * changed.</p>
+ */
+public class GeneratePainterFactory {
+
+    private static final String PACKAGE = "com.seaglasslookandfeel.painter";
+
+    public static void main(String[] args) throws IOException {
+        File   sourceDir  = new File(args.length > 0 ? args[0] : "src/main/java");
+        File   painterDir = new File(sourceDir, PACKAGE.replace('.', File.separatorChar));
+        File[] files      = painterDir.listFiles();
+
+        if (files == null) {
+            System.err.println("No painter sources found in " + painterDir);
+            System.exit(1);
+        }
+
+        Arrays.sort(files);
+
+        StringBuilder names = new StringBuilder();
+        StringBuilder cases = new StringBuilder();
+        int           id    = 0;
+
+        for (File file : files) {
+            String name = file.getName();
+
+            if (!name.endsWith(".java") || !declaresWhich(file)) {
+                continue;
+            }
+
+            name = name.substring(0, name.length() - ".java".length());
+
+            names.append("        \"").append(name).append("\",\n");
+            cases.append("\n        case ").append(id++).append(":\n");
+            cases.append("            return new ").append(name).append("((").append(name).append(".Which) which);\n");
+        }
+
+        File   out     = new File(painterDir, "PainterFactory.java");
+        String factory = TEMPLATE.replace("%NAMES%", names.toString()).replace("%CASES%", cases.toString());
+
+        if (out.exists() && factory.equals(read(out))) {
+            System.out.println(out + " is up to date");
+
+            return;
+        }
+
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(out), "UTF-8"));
+
+        try {
+            writer.print(factory);
+        } finally {
+            writer.close();
+        }
+
+        System.out.println("Wrote " + id + " painters to " + out);
+    }
+
+    private static boolean declaresWhich(File file) throws IOException {
+        String source = read(file);
+
+        return source.contains("enum Which") && !source.contains("abstract class");
+    }
+
+    private static String read(File file) throws IOException {
+        byte[]          data = new byte[(int) file.length()];
+        FileInputStream in   = new FileInputStream(file);
+
+        try {
+            int n = 0;
+
+            while (n < data.length) {
+                n += in.read(data, n, data.length - n);
+            }
+        } finally {
+            in.close();
+        }
+
+        return new String(data, "UTF-8");
+    }
+
+    private static final String TEMPLATE = "/*\n"
+        + " * Copyright (c) 2009 Kathryn Huxtable and Kenneth Orr.\n"
+        + " *\n"
+        + " * This file is part of the SeaGlass Pluggable Look and Feel.\n"
+        + " *\n"
+        + " * Licensed under the Apache License, Version 2.0 (the \"License\");\n"
+        + " * you may not use this file except in compliance with the License.\n"
+        + " * You may obtain a copy of the License at\n"
+        + " *\n"
+        + " *     http://www.apache.org/licenses/LICENSE-2.0\n"
+        + " *\n"
+        + " * Unless required by applicable law or agreed to in writing, software\n"
+        + " * distributed under the License is distributed on an \"AS IS\" BASIS,\n"
+        + " * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.\n"
+        + " * See the License for the specific language governing permissions and\n"
+        + " * limitations under the License.\n"
+        + " *\n"
+        + " * $Id$\n"
+        + " */\n"
+        + "package " + PACKAGE + ";\n"
+        + "\n"
+        + "import java.util.HashMap;\n"
+        + "import java.util.Map;\n"
+        + "\n"
+        + "/**\n"
+        + " * Creates the SeaGlass painters without reflection. The look and feel\n"
+        + " * defaults name each painter by its class name and the Which value it is to\n"
+        + " * paint, this maps them onto direct constructor calls.\n"
+        + " *\n"
+        + " * <p>Generated by GeneratePainterFactory in src/tools. Do not edit, run it\n"
+        + " * again whenever a painter is added or removed.</p>\n"
+        + " */\n"
+        + "public final class PainterFactory {\n"
+        + "\n"
+        + "    /** The painters, in the order of their ids. */\n"
+        + "    private static final String[] PAINTERS = {\n"
+        + "%NAMES%"
+        + "    };\n"
+        + "\n"
+        + "    /** Maps the fully qualified painter class names onto their ids. */\n"
+        + "    private static final Map<String, Integer> IDS = new HashMap<String, Integer>(PAINTERS.length * 2);\n"
+        + "\n"
+        + "    static {\n"
+        + "        for (int i = 0; i < PAINTERS.length; i++) {\n"
+        + "            IDS.put(\"" + PACKAGE + ".\" + PAINTERS[i], i);\n"
+        + "        }\n"
+        + "    }\n"
+        + "\n"
+        + "    /**\n"
+        + "     * Not to be instantiated.\n"
+        + "     */\n"
+        + "    private PainterFactory() {\n"
+        + "    }\n"
+        + "\n"
+        + "    /**\n"
+        + "     * Create a painter.\n"
+        + "     *\n"
+        + "     * @param  className the fully qualified class name of the painter.\n"
+        + "     * @param  which     the state for the painter to paint, a value of the\n"
+        + "     *                   painter's Which enum.\n"
+        + "     *\n"
+        + "     * @return the painter, or null if the class is not one of the SeaGlass\n"
+        + "     *         painters.\n"
+        + "     */\n"
+        + "    public static SeaGlassPainter<?> createPainter(String className, Enum<?> which) {\n"
+        + "        Integer id = IDS.get(className);\n"
+        + "\n"
+        + "        if (id == null) {\n"
+        + "            return null;\n"
+        + "        }\n"
+        + "\n"
+        + "        switch (id) {\n"
+        + "%CASES%"
+        + "        }\n"
+        + "\n"
+        + "        return null;\n"
+        + "    }\n"
+        + "}\n";
+}
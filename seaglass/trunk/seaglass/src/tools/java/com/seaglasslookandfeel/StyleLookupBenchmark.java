@@ -0,0 +1,126 @@
+package com.seaglasslookandfeel;
+
+import java.lang.management.ManagementFactory;
+
+import javax.swing.JButton;
+import javax.swing.UIManager;
+import javax.swing.plaf.synth.Region;
+import javax.swing.plaf.synth.SynthConstants;
+import javax.swing.plaf.synth.SynthContext;
+import javax.swing.plaf.synth.SynthLookAndFeel;
+import javax.swing.plaf.synth.SynthStyle;
+
+/**
+ * Measures cached property lookups through SeaGlassStyle.get. Prints the
+ * average time and the number of bytes allocated per lookup, which should be
+ * zero once the cache is warm, and then repeats the lookups from several
+ * threads at once, checking that every thread sees the same values.
+ *
+ * <p>Usage: StyleLookupBenchmark [iterations] [threads]. Allocation is measured
+ * with com.sun.management.ThreadMXBean and is reported as unknown on VMs
+ * without it.</p>
+ */
+public class StyleLookupBenchmark {
+
+    private static final String[] KEYS = {
+        "Button.contentMargins", "Button.font", "Button.textForeground", "Button.defaultButtonFollowsFocus",
+        "Button.backgroundPainter", "Button.doesNotExist"
+    };
+
+    private static final int[] STATES = {
+        SynthConstants.ENABLED, SynthConstants.ENABLED | SynthConstants.MOUSE_OVER,
+        SynthConstants.ENABLED | SynthConstants.PRESSED, SynthConstants.DISABLED
+    };
+
+    public static void main(String[] args) throws Exception {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int       threads    = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        UIManager.setLookAndFeel(new SeaGlassLookAndFeel());
+
+        JButton              button   = new JButton("Button");
+        SynthStyle           style    = SynthLookAndFeel.getStyle(button, Region.BUTTON);
+        final SynthContext[] contexts = new SynthContext[STATES.length];
+
+        for (int i = 0; i < STATES.length; i++) {
+            contexts[i] = new SynthContext(button, Region.BUTTON, style, STATES[i]);
+        }
+
+        final Object[] expected = lookup(contexts);
+
+        // Warm up the cache and the compiler.
+        for (int i = 0; i < 100000; i++) {
+            lookup(contexts[i % contexts.length], KEYS[i % KEYS.length]);
+        }
+
+        long before = allocatedBytes();
+        long start  = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++) {
+            lookup(contexts[i % contexts.length], KEYS[i % KEYS.length]);
+        }
+
+        long time  = System.nanoTime() - start;
+        long after = allocatedBytes();
+
+        System.out.printf("%d lookups, %.1f ns/lookup, %s bytes/lookup%n", iterations, (double) time / iterations,
+                          before < 0 ? "unknown" : String.format("%.3f", (double) (after - before) / iterations));
+
+        final boolean[] failed  = new boolean[1];
+        Thread[]        workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread() {
+                public void run() {
+                    for (int i = 0; i < iterations / 10; i++) {
+                        int c = i % contexts.length;
+                        int k = i % KEYS.length;
+
+                        if (lookup(contexts[c], KEYS[k]) != expected[c * KEYS.length + k]) {
+                            failed[0] = true;
+                        }
+                    }
+                }
+            };
+        }
+
+        start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        time = System.nanoTime() - start;
+
+        System.out.printf("%d threads, %.1f ms, %s%n", threads, time / 1e6, failed[0] ? "MISMATCH" : "consistent");
+    }
+
+    private static Object[] lookup(SynthContext[] contexts) {
+        Object[] values = new Object[contexts.length * KEYS.length];
+
+        for (int c = 0; c < contexts.length; c++) {
+            for (int k = 0; k < KEYS.length; k++) {
+                values[c * KEYS.length + k] = lookup(contexts[c], KEYS[k]);
+            }
+        }
+
+        return values;
+    }
+
+    private static Object lookup(SynthContext context, String key) {
+        return context.getStyle().get(context, key);
+    }
+
+    private static long allocatedBytes() {
+        Object bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        return -1;
+    }
+}
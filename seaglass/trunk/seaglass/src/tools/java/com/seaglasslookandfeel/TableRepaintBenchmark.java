@@ -0,0 +1,135 @@
+package com.seaglasslookandfeel;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Times repainting a 10,000 row table under the SeaGlass look and feel, to
+ * measure the cost of laying out and painting cell text. The table is
+ * painted a screen at a time from top to bottom, then one screen is painted
+ * repeatedly, as it is when the selection or the rollover changes.
+ *
+ * <p>Usage: TableRepaintBenchmark [passes]. Runs headless if no display is
+ * set. Compare the times with those of another build of the look and feel on
+ * the same machine.</p>
+ */
+public class TableRepaintBenchmark {
+
+    private static final int ROWS    = 10000;
+    private static final int WIDTH   = 800;
+    private static final int HEIGHT  = 600;
+    private static final int REPEATS = 500;
+
+    private static final String[] COLUMNS  = { "Id", "Summary", "Status", "Owner", "Priority", "Modified" };
+    private static final String[] STATUSES = { "Open", "In Progress", "Resolved", "Closed", "Reopened" };
+    private static final String[] OWNERS   = { "Alice Andersen", "Bob Brown", "Carol Chen", "Dave Dubois", "Erin Evans", "Frank Fischer" };
+    private static final String[] PRIORITY = { "Blocker", "Critical", "Major", "Minor", "Trivial" };
+
+    public static void main(String[] args) throws Exception {
+        final int passes = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+        UIManager.setLookAndFeel("com.seaglasslookandfeel.SeaGlassLookAndFeel");
+
+        SwingUtilities.invokeAndWait(new Runnable() {
+                public void run() {
+                    benchmark(passes);
+                }
+            });
+    }
+
+    private static void benchmark(int passes) {
+        JTable      table      = new JTable(new Model());
+        JScrollPane scrollPane = new JScrollPane(table);
+        JViewport   viewport   = scrollPane.getViewport();
+
+        scrollPane.setSize(WIDTH, HEIGHT);
+        scrollPane.doLayout();
+        viewport.doLayout();
+
+        BufferedImage image  = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        int           screen = viewport.getExtentSize().height;
+        int           height = table.getPreferredSize().height;
+
+        for (int pass = 0; pass < passes; pass++) {
+            long start = System.nanoTime();
+            int  count = 0;
+
+            for (int y = 0; y < height; y += screen) {
+                viewport.setViewPosition(new Point(0, Math.min(y, height - screen)));
+                paint(scrollPane, image);
+                count++;
+            }
+
+            long scrolled = System.nanoTime() - start;
+
+            viewport.setViewPosition(new Point(0, height / 2));
+            start = System.nanoTime();
+
+            for (int i = 0; i < REPEATS; i++) {
+                paint(scrollPane, image);
+            }
+
+            long repeated = System.nanoTime() - start;
+
+            System.out.println("Pass " + (pass + 1) + ": scrolled " + count + " screens in " + scrolled / 1000000 + " ms, repainted "
+                               + REPEATS + " screens in " + repeated / 1000000 + " ms");
+        }
+    }
+
+    private static void paint(JScrollPane scrollPane, BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+
+        try {
+            scrollPane.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static class Model extends AbstractTableModel {
+        private static final long serialVersionUID = 1L;
+
+        public int getRowCount() {
+            return ROWS;
+        }
+
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        public Object getValueAt(int row, int column) {
+            switch (column) {
+
+            case 0:
+                return "ISSUE-" + (row + 1);
+
+            case 1:
+                return "Table cell text is measured on every paint (" + (row % 40) + ")";
+
+            case 2:
+                return STATUSES[row % STATUSES.length];
+
+            case 3:
+                return OWNERS[(row / 3) % OWNERS.length];
+
+            case 4:
+                return PRIORITY[(row * 7) % PRIORITY.length];
+
+            default:
+                return "2011-0" + (1 + row % 9) + "-" + (10 + row % 18);
+            }
+        }
+    }
+}
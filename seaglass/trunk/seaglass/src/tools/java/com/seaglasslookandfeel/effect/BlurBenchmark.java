@@ -0,0 +1,110 @@
+package com.seaglasslookandfeel.effect;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Compares the Gaussian kernel blur with the three-pass box blur a shadow
+ * effect may choose instead, on rounded rectangles from 16 to 512 pixels and a
+ * range of radii. Prints the average time per blur and the largest difference
+ * in alpha between the two results.
+ *
+ * <p>Usage: BlurBenchmark [iterations]. Run with
+ * -DSeaGlass.Effect.parallelThreshold=-1 to time a single thread.</p>
+ */
+public class BlurBenchmark {
+
+    private static final int[] SIZES = { 16, 32, 64, 128, 256, 512 };
+    private static final int[] RADII = { 2, 5, 10, 20 };
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        System.out.println("size\tradius\tgaussian(us)\tbox(us)\tspeedup\tmax diff");
+
+        for (int size : SIZES) {
+            for (int radius : RADII) {
+                byte[] alpha = createAlpha(size, radius);
+                int    w     = size + radius * 2;
+                int    h     = size + radius * 2;
+
+                byte[] gaussian = new byte[w * h];
+                byte[] box      = new byte[w * h];
+
+                // Warm up both paths, and keep the results for comparison.
+                for (int i = 0; i < 5; i++) {
+                    gaussianBlur(alpha, gaussian, w, h, radius);
+                    boxBlur(alpha, box, w, h, radius);
+                }
+
+                long start = System.nanoTime();
+
+                for (int i = 0; i < iterations; i++) {
+                    gaussianBlur(alpha, gaussian, w, h, radius);
+                }
+
+                long gaussianTime = (System.nanoTime() - start) / iterations;
+
+                start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    boxBlur(alpha, box, w, h, radius);
+                }
+
+                long boxTime = (System.nanoTime() - start) / iterations;
+
+                int maxDiff = 0;
+
+                for (int i = 0; i < gaussian.length; i++) {
+                    maxDiff = Math.max(maxDiff, Math.abs((gaussian[i] & 0xFF) - (box[i] & 0xFF)));
+                }
+
+                System.out.printf("%d\t%d\t%d\t%d\t%.1fx\t%d%n", size, radius, gaussianTime / 1000, boxTime / 1000,
+                                  (double) gaussianTime / Math.max(1, boxTime), maxDiff);
+            }
+        }
+    }
+
+    /**
+     * Rasterize a rounded rectangle's alpha, padded by the radius on each side,
+     * as the drop shadow effect does.
+     */
+    private static byte[] createAlpha(int size, int radius) {
+        int           w     = size + radius * 2;
+        int           h     = size + radius * 2;
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D    g     = image.createGraphics();
+
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(Color.BLACK);
+        g.fill(new RoundRectangle2D.Double(radius, radius, size, size, size / 4, size / 4));
+        g.dispose();
+
+        byte[] alpha = new byte[w * h];
+
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                alpha[y * w + x] = (byte) (image.getRGB(x, y) >>> 24);
+            }
+        }
+
+        return alpha;
+    }
+
+    private static void gaussianBlur(byte[] src, byte[] dst, int w, int h, int radius) {
+        byte[]  tmp    = new byte[w * h];
+        float[] kernel = EffectUtils.getGaussianKernel(radius);
+
+        EffectUtils.blur(src, tmp, w, h, kernel, radius);
+        EffectUtils.blur(tmp, dst, h, w, kernel, radius);
+    }
+
+    private static void boxBlur(byte[] src, byte[] dst, int w, int h, int radius) {
+        byte[] tmp = new byte[w * h];
+
+        EffectUtils.boxBlur(src, tmp, w, h, radius);
+        EffectUtils.boxBlur(tmp, dst, h, w, radius);
+    }
+}